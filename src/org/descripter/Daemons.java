@@ -0,0 +1,130 @@
+
+/*
+ *  Descripter 1.0 - Java Script Engines
+ *  Copyright (C) 2010-2015  Jianjun Liu (J.J.Liu)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.descripter;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.descripter.js.api.Global;
+import org.descripter.js.ss.Daemon;
+
+/**
+ * <p>Load-tests the request execution modes of {@link Daemon}.</p>
+ * <p>Each request runs a scriptlet that blocks for a while, like one waiting for I/O, so that
+ * the throughput shows how many requests a mode serves at the same time.</p>
+ *
+ * @author <a href="mailto:jianjunliu@126.com">J.J.Liu (Jianjun Liu)</a> at <a href="http://www.descripter.org" target="_blank">http://www.descripter.org</a>
+ * @since Descripter 1.0
+ */
+public class Daemons extends Global<Daemon>
+{
+	private final static int CLIENTS = 256;
+	private final static int REQUESTS = 2048;
+
+	/**
+	 * <p>Constructs a {@link Global} script context of this type.</p>
+	 * @param with The containing {@link Daemon} context.
+	 * @since Descripter 1.0
+	 */
+	public Daemons(Daemon with) {
+		super(with);
+	}
+
+	/**
+	 * <p>Executes the script context of this type.</p>
+	 * @since Descripter 1.0
+	 */
+	@Override
+	public void run() {
+		final String url = "http://localhost:" + with.port + "/block.js";
+		ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+		List<Future<Integer>> codes = new ArrayList<Future<Integer>>();
+		long t = System.nanoTime();
+		for (int i = 0; i < REQUESTS; i++) {
+			codes.add(clients.submit(new Callable<Integer>() {
+				@Override
+				public Integer call() throws IOException {
+					HttpURLConnection c = (HttpURLConnection)new URL(url).openConnection();
+					c.setConnectTimeout(10000);
+					c.setReadTimeout(10000);
+					int code = c.getResponseCode();
+					InputStream is = code == 200 ? c.getInputStream() : c.getErrorStream();
+					if (is != null) {
+						while (is.read() >= 0) {
+						}
+						is.close();
+					}
+					return code;
+				}
+			}));
+		}
+		int ok = 0, busy = 0;
+		for (Future<Integer> f : codes) {
+			try {
+				int code = f.get();
+				if (code == 200) {
+					ok++;
+				} else if (code == 503) {
+					busy++;
+				}
+			} catch (Exception e) {
+			}
+		}
+		t = System.nanoTime() - t;
+		clients.shutdown();
+		System.out.println(
+				(with.virtual() ? "virtual threads: " : with.workers() + " worker threads: ") +
+				ok + " ok, " + busy + " busy, " + REQUESTS * 1000000000L / t + " requests/s"
+		);
+	}
+
+	/**
+	 * <p>Creates and runs {@link Global} script contexts of the containing type.</p>
+	 * @param args Ignored
+	 * @throws IOException if the scriptlet cannot be written.
+	 * @since Descripter 1.0
+	 */
+	public static void main(String[] args) throws IOException {
+		File root = new File(System.getProperty("java.io.tmpdir"), "daemons");
+		root.mkdirs();
+		Writer w = new FileWriter(new File(root, "block.js"));
+		w.write("#java.util.concurrent.locks.LockSupport.parkNanos(20000000L);\r\nprint('done');\r\n");
+		w.close();
+		for (int i = 0; i < 2; i++) {
+			Daemon d = new Daemon(root.getPath(), 18080 + i, "/");
+			d.backlog(REQUESTS);
+			d.virtual(i > 0);
+			d.run();
+			new Daemons(d).run();
+		}
+		System.exit(0);
+	}
+}
@@ -52,6 +52,10 @@ public class Evals extends Global<Core>
 				"Math.sqrt(3) / 2)"
 		);
 		eval("var v = Math.PI, u = Math.cos(v / 4); print(u);");
+		for (int i = 0; i < 1000; i++) {
+			eval("var w = '<li>' + v + '</li>';");
+		}
+		print(with.hits(), " hits, ", with.misses(), " misses, cache limit ", with.programs());
 	}
 
 	/**
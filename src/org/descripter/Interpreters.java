@@ -84,6 +84,9 @@ public class Interpreters extends Global<Core>
 		eval("aaa='AAA';print(aaa);");
 		eval("while(true){if(true)break;}print('abrupted');");
 		eval("label:while(true){if(true)break label;}print('abrupted');");
+		eval("var n=0;outer:inner:for(var i=0;i<3;i=i+1){n=n+1;continue outer;}print(n);");
+		eval("var g=function(){try{throw 1;}finally{return 2;}};print(g());");
+		eval("while(true){try{throw 1;}finally{break;}}print('after');");
 		eval("var a='A',b='BB';print(a+b);");
 		eval("var v=10;while(v){print(v);v=v-1;if(v) {print(v);print(!!v);break;}};print(v);");
 		eval("var v=10;while(v){print(v);v=v-1;}");
@@ -98,6 +101,8 @@ public class Interpreters extends Global<Core>
 		eval("var s = 'Hello World!'; var v ='print(s);eval(\"print(s)\")'; print(v);eval(v);");
 //		eval("eval(\"print('Hello World')\");#System.out.println(\"Hello Hash!\");");
 		eval("print(Math.sin(Math.PI/4));");
+		eval("print('before');if(false){print('3'*2);}print('after');");
+		eval("var f=function(){return 2-'1';};print(typeof f);");
 	}
 
 	/**
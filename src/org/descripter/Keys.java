@@ -0,0 +1,107 @@
+
+/*
+ *  Descripter 1.0 - Java Script Engines
+ *  Copyright (C) 2010-2015  Jianjun Liu (J.J.Liu)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.descripter;
+
+import org.descripter.js.api.Core;
+import org.descripter.js.api.Global;
+import org.descripter.js.api.Key;
+
+/**
+ * <p>Tests interning {@link Key}s from concurrent threads.</p>
+ *
+ * @author <a href="mailto:jianjunliu@126.com">J.J.Liu (Jianjun Liu)</a> at <a href="http://www.descripter.org" target="_blank">http://www.descripter.org</a>
+ * @since Descripter 1.0
+ */
+public class Keys extends Global<Core>
+{
+	private final static int LOOKUPS = 1000000;
+
+	private final String[] names;
+
+	/**
+	 * <p>Constructs a {@link Global} script context of this type.</p>
+	 * @param with The containing {@link Core} context.
+	 * @since Descripter 1.0
+	 */
+	public Keys(Core with) {
+		super(with);
+		names = new String[256];
+		for (int i = 0; i < names.length; i++) {
+			names[i] = "name" + i;
+		}
+	}
+
+	private long lookup(int threads) throws InterruptedException {
+		Thread[] ts = new Thread[threads];
+		for (int t = 0; t < threads; t++) {
+			final int seed = t;
+			ts[t] = new Thread() {
+				@Override
+				public void run() {
+					for (int i = 0; i < LOOKUPS; i++) {
+						if (key(names[(i + seed) & 255]) == null) {
+							throw new IllegalStateException();
+						}
+					}
+				}
+			};
+		}
+		long start = System.nanoTime();
+		for (Thread t : ts) {
+			t.start();
+		}
+		for (Thread t : ts) {
+			t.join();
+		}
+		return System.nanoTime() - start;
+	}
+
+	/**
+	 * <p>Executes the script context of this type.</p>
+	 * @since Descripter 1.0
+	 */
+	@Override
+	public void run() {
+		Key k = key("name0");
+		print(k == key("name0"));
+		print(k == Key.get(k.hashCode()));
+		print(Key.has("name0"));
+		try {
+			lookup(1);
+			for (int threads = 1, max = Runtime.getRuntime().availableProcessors() * 2;
+					threads <= max; threads <<= 1) {
+				long nanos = lookup(threads);
+				print(threads, " thread(s): ", (long)threads * LOOKUPS * 1000L / Math.max(nanos / 1000L, 1L), " lookups/ms");
+			}
+		} catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * <p>Creates and runs {@link Global} script contexts of the containing type.</p>
+	 * @param args Ignored
+	 * @since Descripter 1.0
+	 */
+	public static void main(String[] args) {
+		Core c = new Core();
+		new Keys(c).run();
+	}
+}
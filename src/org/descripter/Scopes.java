@@ -0,0 +1,111 @@
+
+/*
+ *  Descripter 1.0 - Java Script Engines
+ *  Copyright (C) 2010-2015  Jianjun Liu (J.J.Liu)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.descripter;
+
+import org.descripter.js.Interpreter;
+import org.descripter.js.api.Context;
+import org.descripter.js.api.Core;
+import org.descripter.js.api.Global;
+import org.descripter.js.api.Key;
+import org.descripter.js.api.Script;
+
+/**
+ * <p>Tests looking up global identifiers from deeply nested script contexts.</p>
+ * <p>Compares walking the whole chain of containing contexts with the cached lookups of the 
+ * innermost context.</p>
+ *
+ * @author <a href="mailto:jianjunliu@126.com">J.J.Liu (Jianjun Liu)</a> at <a href="http://www.descripter.org" target="_blank">http://www.descripter.org</a>
+ * @since Descripter 1.0
+ */
+public class Scopes extends Global<Core>
+{
+	private final static int LOOKUPS = 1000000;
+
+	/**
+	 * <p>Constructs a {@link Global} script context of this type.</p>
+	 * @param with The containing {@link Core} context.
+	 * @since Descripter 1.0
+	 */
+	public Scopes(Core with) {
+		super(with);
+	}
+
+	private Script<?> nest(int depth) {
+		Script<?> s = this;
+		for (int i = 0; i < depth; i++) {
+			s = new Interpreter(s);
+		}
+		return s;
+	}
+
+	@SuppressWarnings("unchecked")
+	private long walk(Script<?> s, Key k) {
+		long start = System.nanoTime();
+		for (int i = 0; i < LOOKUPS; i++) {
+			Context<?, ?, ?> c = s;
+			while (!((Context<Key, ?, ?>)c).owns(k)) {
+				c = c.with;
+			}
+		}
+		return (System.nanoTime() - start) / LOOKUPS;
+	}
+
+	private long cached(Script<?> s, Key k) {
+		long start = System.nanoTime();
+		for (int i = 0; i < LOOKUPS; i++) {
+			if (s.get(k) == null) {
+				throw new IllegalStateException();
+			}
+		}
+		return (System.nanoTime() - start) / LOOKUPS;
+	}
+
+	/**
+	 * <p>Executes the script context of this type.</p>
+	 * @since Descripter 1.0
+	 */
+	@Override
+	public void run() {
+		Key k = core()._Math;
+		Script<?> s = nest(8);
+		walk(s, k);
+		cached(s, k);
+		for (int depth = 1; depth <= 512; depth <<= 2) {
+			s = nest(depth);
+			print("depth ", depth, ": walk ", walk(s, k), " ns, cached ", cached(s, k), " ns per lookup");
+		}
+		s = nest(64);
+		print(s.get(k) == core().get(k));
+		s.with.put(k, 1);
+		print(s.get(k));
+		print(s.has(k));
+		print(s.in(k) == s.with);
+	}
+
+	/**
+	 * <p>Creates and runs {@link Global} script contexts of the containing type.</p>
+	 * @param args Ignored
+	 * @since Descripter 1.0
+	 */
+	public static void main(String[] args) {
+		Core c = new Core();
+		new Scopes(c).run();
+	}
+}
@@ -19,8 +19,13 @@
 
 package org.descripter.js;
 
+import java.util.Collection;
+
 /**
  * <p>An abstract base class for interpreting exceptions.</p>
+ * <p>The {@link Interpreter} returns instances of this type from statements as completion records 
+ * and only throws them out of a program that completes abruptly. They neither record a stack trace 
+ * nor suppressed exceptions.</p>
  *
  * @see Interpreter
  * 
@@ -43,6 +48,7 @@ public abstract class Abrupt extends RuntimeException
 	 * @since Descripter 1.0
 	 */
 	protected Abrupt(Object value) {
+		super(null, null, false, false);
 		this.value = value;
 	}
 
@@ -54,13 +60,26 @@ public abstract class Abrupt extends RuntimeException
 		this(null);
 	}
 
+	/**
+	 * <p>Tells if this abrupt completion targets a statement with the specified label.</p>
+	 * @param label A label value, a {@link Collection} of the labels of a statement, or <tt>null</tt> 
+	 * for an unlabelled statement.
+	 * @return <tt>true</tt> if this completion carries no label or one of the specified ones; 
+	 * <tt>false</tt>, otherwise.
+	 * @since Descripter 1.0
+	 */
+	public final boolean targets(Object label) {
+		return value == null || value.equals(label) ||
+				label instanceof Collection && ((Collection<?>)label).contains(value);
+	}
+
 	/**
 	 * <p>Tries to throw the runtime exception.</p>
 	 * @param label A label value.
 	 * @since Descripter 1.0
 	 */
 	public final void tryThrow(Object label) {
-		if (value != null && !value.equals(label)) {
+		if (!targets(label)) {
 			throw this;
 		}
 	}
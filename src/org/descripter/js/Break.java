@@ -31,6 +31,12 @@ public class Break extends Abrupt
 {
 	private static final long serialVersionUID = -6181634521506780728L;
 
+	/**
+	 * <p>The shared completion of unlabelled JavaScript <tt>break</tt> statements.</p>
+	 * @since Descripter 1.0
+	 */
+	public final static Break BREAK = new Break();
+
 	/**
 	 * <p>Constructs a runtime exception of this type.</p>
 	 * @since Descripter 1.0
@@ -31,6 +31,12 @@ public class Continue extends Abrupt
 {
 	private static final long serialVersionUID = -4472272990543761448L;
 
+	/**
+	 * <p>The shared completion of unlabelled JavaScript <tt>continue</tt> statements.</p>
+	 * @since Descripter 1.0
+	 */
+	public final static Continue CONTINUE = new Continue();
+
 	/**
 	 * <p>Constructs a runtime exception of this type.</p>
 	 * @since Descripter 1.0
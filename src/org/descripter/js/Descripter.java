@@ -102,12 +102,25 @@ public class Descripter extends Visitor<Script<?>> implements JSParserVisitor
 		);
 		src = catn(
 				src,
-				tab("}"),
-				!list.isEmpty() ? catn(
-						"",
-						tab(stmt(cats("private", "final", "Key[]", "_", "=", "{", list(list.toArray()), "}"))),
-						""
-				) : "", 
+				tab("}")
+		);
+		if (!list.isEmpty()) {
+			src = catn(
+					src,
+					"",
+					tab(stmt(cats("private", "final", "Key[]", "__", "=", "{", list(list.toArray()), "}")))
+			);
+		}
+		if (!sites.isEmpty()) {
+			src = catn(
+					src,
+					"",
+					tab(stmt(cats("private", "final", "static", "Site[]", "$", "=", "{", list(sites.toArray()), "}")))
+			);
+		}
+		src = catn(
+				src,
+				"",
 				tab(cats("public", "static", "void", inv("main", cats("String[]", "args")), "{")),
 				tab2(stmt(cats(par(cls, "Core"), "desc", "=", nevv(par(cls, "Core"), nevv("Core"))))),
 				tab2(stmt(run("desc"))),
@@ -119,6 +132,7 @@ public class Descripter extends Visitor<Script<?>> implements JSParserVisitor
 
 	private final List<String> list = new ArrayList<String>();
 	private final Map<String, Integer> map = new HashMap<String, Integer>();
+	private final List<String> sites = new ArrayList<String>();
 
 	/**
 	 * <p>Returns the internal integer key of an identifier.</p>
@@ -143,6 +157,20 @@ public class Descripter extends Visitor<Script<?>> implements JSParserVisitor
 		return i;
 	}
 
+	/**
+	 * <p>Returns an expression to refer to a new property access {@link Site} of an identifier.</p>
+	 * <p>Each occurrence of a property access gets its own {@link Site} so that the inline cache 
+	 * of the {@link Site} only sees the objects accessed at that occurrence.</p>
+	 * @param id The identifier
+	 * @return The string of the expression to refer to the {@link Site}.
+	 * @since Descripter 1.0
+	 */
+	protected final String site(Object id) {
+		int i = sites.size();
+		sites.add(nevv("Site", qt(id.toString())));
+		return cat("$[", i, "]");
+	}
+
 	/**
 	 * <p>Returns an expression to localize an identifier.</p>
 	 * @param id The identifier
@@ -151,7 +179,7 @@ public class Descripter extends Visitor<Script<?>> implements JSParserVisitor
 	 */
 	protected final String local(Object id) {
 		int i = id(id);
-		return inv("my", i < 0 ? inv(ref("Key", "get"), i) : cat("_[", i, "]"));
+		return inv("my", i < 0 ? inv(ref("Key", "get"), i) : cat("__[", i, "]"));
 	}
 
 	/**
@@ -162,7 +190,7 @@ public class Descripter extends Visitor<Script<?>> implements JSParserVisitor
 	 */
 	protected final String global(Object id) {
 		int i = id(id);
-		return inv("var", i < 0 ? inv(ref("Key", "get"), i) : cat("_[", i, "]"));
+		return inv("var", i < 0 ? inv(ref("Key", "get"), i) : cat("__[", i, "]"));
 	}
 
 	/**
@@ -293,9 +321,16 @@ public class Descripter extends Visitor<Script<?>> implements JSParserVisitor
 	@Override
 	public Object visit(ECMAPropertyAssignment node, Object data) {
 		if (DEBUG) debug(node);
-		int i = id(node.getChild(0).jjtGetValue().toString());
+		AbstractNode n = node.getChild(0);
+		if (n instanceof ECMAIdentifier) {
+			return cat(data, ".set(", list(
+					site(n.jjtGetValue()),
+					node.getChild(1).jjtAccept(this, "")
+			), ")");
+		}
+		int i = id(n.jjtGetValue().toString());
 		return cat(data, ".set(", list(
-				i < 0 ? inv(ref("Key", "get"), i) : cat("_[", i, "]"),
+				i < 0 ? inv(ref("Key", "get"), i) : cat("__[", i, "]"),
 				node.getChild(1).jjtAccept(this, "")
 		), ")");
 	}
@@ -369,7 +404,11 @@ public class Descripter extends Visitor<Script<?>> implements JSParserVisitor
 	@Override
 	public Object visit(ECMAMemberAccessor node, Object data) {
 		if (DEBUG) debug(node);
-		return ref(data, node.getChild(0).jjtAccept(this, ""));
+		AbstractNode n = node.getChild(0);
+		if (n instanceof ECMAIdentifier) {
+			return ref(data, inv("var", site(n.jjtGetValue())));
+		}
+		return ref(data, n.jjtAccept(this, ""));
 	}
 
 	/**
@@ -1096,7 +1135,7 @@ public class Descripter extends Visitor<Script<?>> implements JSParserVisitor
 		if (DEBUG) debug(node);
 		return stmt(cat(
 				data,
-				cats("throw", nevv("Thrown", node.getChild(0).jjtAccept(this, "")))
+				cats("throw", inv("thrown", node.getChild(0).jjtAccept(this, "")))
 		));
 	}
 
@@ -1185,6 +1224,11 @@ public class Descripter extends Visitor<Script<?>> implements JSParserVisitor
 		return stmt(visitFunction(node, data));
 	}
 
+	private static boolean returns(AbstractNode body) {
+		int n = body.jjtGetNumChildren();
+		return n > 0 && body.getChild(n - 1) instanceof ECMAReturnStatement;
+	}
+
 	/**
 	 * <p>Visits a parsed node of the specified type.</p>
 	 * @param node The node to visit.
@@ -1196,15 +1240,34 @@ public class Descripter extends Visitor<Script<?>> implements JSParserVisitor
 		int n = node.jjtGetNumChildren();
 		String f = catn(
 				nevv("MyFunction", "this"),
-				cat(data, "{"),
+				cat(data, "{")
+		);
+		if (!arguments(node.getChild(n - 1))) {
+			f = catn(
+					f,
+					tab(cat(data, cats("protected", "boolean", def("arguments"), "{"))),
+					tab2(cat(data, stmt(cats("return", "false")))),
+					tab(cat(data, "}"))
+			);
+		}
+		f = catn(
+				f,
 				tab(cat(data, cats("public", "MyFunctor", def("functor"), "{"))),
 				tab2(cat(data, cats("return", nevv("MyFunctor", "this"), "{"))),
 				tab3(cat(data, cats("public", "Object", def("function"), "{"))),
 				node.getChild(n - 2).jjtAccept(this, tab4(data)),
 				catn(
 						node.getChild(n - 1).acceptChildren(this, tab4(data))
-				),
-				tab4(cat(data, stmt(cats("return", "null")))),
+				)
+		);
+		if (!returns(node.getChild(n - 1))) {
+			f = catn(
+					f,
+					tab4(cat(data, stmt(cats("return", "null"))))
+			);
+		}
+		f = catn(
+				f,
 				tab3(cat(data, "}")),
 				tab2(cat(data, stmt("}"))),
 				tab(cat(data, "}")),
@@ -1246,7 +1309,7 @@ public class Descripter extends Visitor<Script<?>> implements JSParserVisitor
 					data,
 					asg(
 							local(node.getChild(i).jjtGetValue()),
-							inv(ref(def("arguments"), "get"), i)
+							inv("argument", i)
 					)
 			));
 		}
@@ -0,0 +1,653 @@
+
+/*
+ *  Descripter 1.0 - Java Script Engines
+ *  Copyright (C) 2010-2015  Jianjun Liu (J.J.Liu)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.descripter.js;
+
+import org.descripter.js.api.Key;
+import org.descripter.js.api.Objective;
+import org.descripter.js.api.Script;
+import org.descripter.js.api.Var;
+import org.descripter.js.parse.*;
+
+/**
+ * <p>An abstract base class for the executable form of parsed JavaScript expressions.</p>
+ * <p>An {@link Interpreter} compiles each expression of a parsed program once into a tree of
+ * {@link Expression}s. Literals are parsed and folded, operators are bound to specialized
+ * {@link Expression}s and identifiers are resolved to {@link Key}s, so that evaluating an
+ * expression again repeats none of the work on the parsed nodes.</p>
+ *
+ * @author <a href="mailto:jianjunliu@126.com">J.J.Liu (Jianjun Liu)</a> at <a href="http://www.descripter.org" target="_blank">http://www.descripter.org</a>
+ * @since Descripter 1.0
+ */
+public abstract class Expression
+{
+	/**
+	 * <p>Evaluates the current expression in the specified {@link Interpreter} context.</p>
+	 * @param interp The {@link Interpreter} context to evaluate the expression in
+	 * @return The result of the evaluation, which is a {@link Var} for references.
+	 * @since Descripter 1.0
+	 */
+	public abstract Object evaluate(Interpreter interp);
+
+	/**
+	 * <p>Tells if the current expression always evaluates to the same primitive value.</p>
+	 * @return <tt>true</tt> if the current expression is a constant; <tt>false</tt>, otherwise.
+	 * @since Descripter 1.0
+	 */
+	public boolean constant() {
+		return false;
+	}
+
+	private final static class Constant extends Expression
+	{
+		private final Object value;
+
+		Constant(Object value) {
+			this.value = value;
+		}
+
+		@Override
+		public Object evaluate(Interpreter interp) {
+			return value;
+		}
+
+		@Override
+		public boolean constant() {
+			return true;
+		}
+	}
+
+	private abstract static class Binary extends Expression
+	{
+		private final Expression a, b;
+
+		Binary(Expression a, Expression b) {
+			this.a = a;
+			this.b = b;
+		}
+
+		@Override
+		public final Object evaluate(Interpreter interp) {
+			Object o = a.evaluate(interp);
+			return apply(interp, o, b.evaluate(interp));
+		}
+
+		abstract Object apply(Interpreter interp, Object a, Object b);
+	}
+
+	private final static Expression[] NONE = {};
+
+	private static boolean primitive(Expression e) {
+		if (!e.constant()) {
+			return false;
+		}
+		Object o = e.evaluate(null);
+		return o instanceof Number || o instanceof String || o instanceof Boolean;
+	}
+
+	/**
+	 * <p>Folds an operation on constants into a constant, keeping the operation if it fails, so
+	 * that the failure is raised when the operation is actually evaluated.</p>
+	 */
+	private static Expression fold(Expression e) {
+		try {
+			return new Constant(e.evaluate(null));
+		} catch (RuntimeException x) {
+			return e;
+		}
+	}
+
+	private static Object[] values(Expression[] exprs, Interpreter interp) {
+		Object[] a = new Object[exprs.length];
+		for (int i = 0; i < a.length; i++) {
+			a[i] = exprs[i].evaluate(interp);
+		}
+		return a;
+	}
+
+	private static Expression[] compile(Script<?> script, AbstractNode node, int from) {
+		int n = node.jjtGetNumChildren() - from;
+		if (n <= 0) {
+			return NONE;
+		}
+		Expression[] a = new Expression[n];
+		for (int i = 0; i < n; i++) {
+			a[i] = compile(script, node.getChild(from + i));
+		}
+		return a;
+	}
+
+	/**
+	 * <p>Compiles the expressions in a parsed program or statement.</p>
+	 * <p>This method compiles every outermost expression found in the node and attaches the
+	 * results to the expression nodes.</p>
+	 * @param script The script context used to resolve identifiers
+	 * @param node A parsed node
+	 * @since Descripter 1.0
+	 */
+	public static void prepare(Script<?> script, AbstractNode node) {
+		if (compiles(node)) {
+			compile(script, node);
+		} else {
+			for (int i = 0, n = node.jjtGetNumChildren(); i < n; i++) {
+				prepare(script, node.getChild(i));
+			}
+		}
+	}
+
+	/**
+	 * <p>Tells if a parsed node is of the expressions an {@link Interpreter} evaluates compiled.</p>
+	 * @param node A parsed node
+	 * @return <tt>true</tt> if the node is compiled into an {@link Expression}; <tt>false</tt>, otherwise.
+	 * @since Descripter 1.0
+	 */
+	public static boolean compiles(AbstractNode node) {
+		return node instanceof ECMALiteral ||
+		       node instanceof ECMAIdentifier ||
+		       node instanceof ECMAThisReference ||
+		       node instanceof ECMAGroup ||
+		       node instanceof ECMAAccess ||
+		       node instanceof ECMABinaryOperation ||
+		       node instanceof ECMAAndOperation ||
+		       node instanceof ECMAOrOperation ||
+		       node instanceof ECMAConditionalExpression ||
+		       node instanceof ECMAAssignmentExpression ||
+		       node instanceof ECMAUnaryExpression ||
+		       node instanceof ECMAPostfixExpression ||
+		       node instanceof ECMANewOperation ||
+		       node instanceof ECMAAllocation ||
+		       node instanceof ECMAArrayLiteral;
+	}
+
+	/**
+	 * <p>Compiles a parsed expression node into an {@link Expression}.</p>
+	 * <p>Nodes that are not compiled are wrapped to be visited by the evaluating {@link Interpreter}.</p>
+	 * @param script The script context used to resolve identifiers
+	 * @param node A parsed expression node
+	 * @return The compiled {@link Expression}
+	 * @since Descripter 1.0
+	 */
+	public static Expression compile(Script<?> script, final AbstractNode node) {
+		if (node.compiled instanceof Expression) {
+			return (Expression)node.compiled;
+		}
+		if (!compiles(node)) {
+			for (int i = 0, n = node.jjtGetNumChildren(); i < n; i++) {
+				prepare(script, node.getChild(i));
+			}
+			return new Expression() {
+				@Override
+				public Object evaluate(Interpreter interp) {
+					return node.jjtAccept(interp, interp);
+				}
+			};
+		}
+		Expression e;
+		if (node instanceof ECMALiteral) {
+			e = literal(node);
+		} else if (node instanceof ECMAIdentifier) {
+			e = name(script.key(node.jjtGetValue().toString()));
+		} else if (node instanceof ECMAThisReference) {
+			final Key k = script.core()._this;
+			e = new Expression() {
+				@Override
+				public Object evaluate(Interpreter interp) {
+					return interp.get(k);
+				}
+			};
+		} else if (node instanceof ECMAGroup) {
+			e = compile(script, node.getChild(0));
+		} else if (node instanceof ECMAAccess) {
+			e = compile(script, node.getChild(0));
+			for (int i = 1, n = node.jjtGetNumChildren(); i < n; i++) {
+				e = access(script, e, node.getChild(i));
+			}
+		} else if (node instanceof ECMABinaryOperation) {
+			e = compile(script, node.getChild(0));
+			for (int i = 1, n = node.jjtGetNumChildren(); i < n; i += 2) {
+				e = binary(node.getChild(i).firstToken.kind, e, compile(script, node.getChild(i + 1)));
+			}
+		} else if (node instanceof ECMAAndOperation || node instanceof ECMAOrOperation) {
+			final boolean and = node instanceof ECMAAndOperation;
+			e = compile(script, node.getChild(0));
+			for (int i = 1, n = node.jjtGetNumChildren(); i < n; i += 2) {
+				final Expression a = e, b = compile(script, node.getChild(i + 1));
+				final Binary op = (Binary)binary(node.getChild(i).firstToken.kind, NULL, NULL);
+				e = new Expression() {
+					@Override
+					public Object evaluate(Interpreter interp) {
+						Object o = a.evaluate(interp);
+						return (and ? Objective.bool(o) : Objective.bnot(o)) ?
+								op.apply(interp, o, b.evaluate(interp)) : o;
+					}
+				};
+			}
+		} else if (node instanceof ECMAConditionalExpression) {
+			final Expression c = compile(script, node.getChild(0)),
+			                 a = compile(script, node.getChild(1)),
+			                 b = compile(script, node.getChild(2));
+			e = primitive(c) ? (Objective.bool(c.evaluate(null)) ? a : b) : new Expression() {
+				@Override
+				public Object evaluate(Interpreter interp) {
+					return Objective.bool(c.evaluate(interp)) ? a.evaluate(interp) : b.evaluate(interp);
+				}
+			};
+		} else if (node instanceof ECMAAssignmentExpression) {
+			e = assignment(
+					node.getChild(1).firstToken.kind,
+					compile(script, node.getChild(0)),
+					compile(script, node.getChild(2))
+			);
+		} else if (node instanceof ECMAUnaryExpression) {
+			e = unary(node.getChild(0).firstToken.kind, compile(script, node.getChild(1)));
+		} else if (node instanceof ECMAPostfixExpression) {
+			final Expression v = compile(script, node.getChild(0));
+			final boolean inc = node.getChild(1).firstToken.kind == JSParserConstants.INC;
+			e = new Expression() {
+				@Override
+				public Object evaluate(Interpreter interp) {
+					Var var = (Var)v.evaluate(interp);
+					return inc ? var.uninc() : var.undec();
+				}
+			};
+		} else if (node instanceof ECMANewOperation) {
+			final Expression f = compile(script, node.getChild(0));
+			final Expression[] args = compile(script, node.getChild(1), 0);
+			e = new Expression() {
+				@Override
+				public Object evaluate(Interpreter interp) {
+					return interp.alloc(f.evaluate(interp), values(args, interp));
+				}
+			};
+		} else if (node instanceof ECMAAllocation) {
+			final Expression f = compile(script, node.getChild(0));
+			e = new Expression() {
+				@Override
+				public Object evaluate(Interpreter interp) {
+					return interp.alloc(f.evaluate(interp));
+				}
+			};
+		} else {
+			final Expression[] elements = compile(script, node, 0);
+			e = new Expression() {
+				@Override
+				public Object evaluate(Interpreter interp) {
+					return interp.array(values(elements, interp));
+				}
+			};
+		}
+		node.compiled = e;
+		return e;
+	}
+
+	private final static Expression NULL = new Constant(null);
+
+	private static Expression literal(AbstractNode node) {
+		final String s = node.jjtGetValue().toString();
+		switch (node.firstToken.kind) {
+			case JSParserConstants.BOOLEAN_LITERAL:
+				return new Constant(s.toLowerCase().equals("true") ? true : false);
+			case JSParserConstants.HEX_INTEGER_LITERAL:
+				try {
+					return new Constant(Integer.parseInt(s.substring(2), 16));
+				} catch(NumberFormatException e) {
+					return new Constant(Long.parseLong(s.substring(2), 16));
+				}
+			case JSParserConstants.DECIMAL_LITERAL:
+				try {
+					return new Constant(Integer.parseInt(s));
+				} catch(NumberFormatException e) {
+					try {
+						return new Constant(Long.parseLong(s));
+					} catch(NumberFormatException nfe) {
+						return new Constant(Double.parseDouble(s));
+					}
+				}
+			case JSParserConstants.NULL_LITERAL:
+				return new Expression() {
+					@Override
+					public Object evaluate(Interpreter interp) {
+						return interp.get(interp.core()._null);
+					}
+				};
+			case JSParserConstants.REGULAR_EXPRESSION_LITERAL:
+				int last = s.lastIndexOf('/');
+				final String re = s.substring(1, last), flags = s.substring(last + 1);
+				return new Expression() {
+					@Override
+					public Object evaluate(Interpreter interp) {
+						return interp.re(re, flags);
+					}
+				};
+			default:
+				return new Constant(s.substring(1, s.length() - 1));
+		}
+	}
+
+	private static Expression name(final Key k) {
+		return new Expression() {
+			@Override
+			public Object evaluate(Interpreter interp) {
+				return interp.var(k);
+			}
+		};
+	}
+
+	private static Expression access(Script<?> script, final Expression base, AbstractNode node) {
+		if (node instanceof ECMAMemberAccessor && node.getChild(0) instanceof ECMAIdentifier) {
+			final Key k = script.key(node.getChild(0).jjtGetValue().toString());
+			return new Expression() {
+				@Override
+				public Object evaluate(Interpreter interp) {
+					return interp.var(base.evaluate(interp), k);
+				}
+			};
+		} else if (node instanceof ECMAArrayAccessor) {
+			final Expression index = compile(script, node.getChild(0));
+			return new Expression() {
+				@Override
+				public Object evaluate(Interpreter interp) {
+					Object o = base.evaluate(interp);
+					return interp.var(o, index.evaluate(interp).toString());
+				}
+			};
+		} else if (node instanceof ECMAArguments) {
+			final Expression[] args = compile(script, node, 0);
+			return new Expression() {
+				@Override
+				public Object evaluate(Interpreter interp) {
+					Object o = base.evaluate(interp);
+					return interp.call(o, values(args, interp));
+				}
+			};
+		}
+		prepare(script, node);
+		final AbstractNode accessor = node;
+		return new Expression() {
+			@Override
+			public Object evaluate(Interpreter interp) {
+				return accessor.jjtAccept(interp, base.evaluate(interp));
+			}
+		};
+	}
+
+	private static Expression binary(int kind, Expression a, Expression b) {
+		Binary e;
+		switch (kind) {
+			case JSParserConstants.LT:
+				e = new Binary(a, b) {
+					@Override
+					Object apply(Interpreter interp, Object a, Object b) {
+						return Objective.lt(a, b);
+					}
+				};
+				break;
+			case JSParserConstants.GT:
+				e = new Binary(a, b) {
+					@Override
+					Object apply(Interpreter interp, Object a, Object b) {
+						return Objective.gt(a, b);
+					}
+				};
+				break;
+			case JSParserConstants.LTE:
+				e = new Binary(a, b) {
+					@Override
+					Object apply(Interpreter interp, Object a, Object b) {
+						return Objective.lte(a, b);
+					}
+				};
+				break;
+			case JSParserConstants.GTE:
+				e = new Binary(a, b) {
+					@Override
+					Object apply(Interpreter interp, Object a, Object b) {
+						return Objective.gte(a, b);
+					}
+				};
+				break;
+			case JSParserConstants.EQ:
+				e = new Binary(a, b) {
+					@Override
+					Object apply(Interpreter interp, Object a, Object b) {
+						return Objective.eq(a, b);
+					}
+				};
+				break;
+			case JSParserConstants.NE:
+				e = new Binary(a, b) {
+					@Override
+					Object apply(Interpreter interp, Object a, Object b) {
+						return !Objective.eq(a, b);
+					}
+				};
+				break;
+			case JSParserConstants.EQS:
+				e = new Binary(a, b) {
+					@Override
+					Object apply(Interpreter interp, Object a, Object b) {
+						return Objective.eqs(a, b);
+					}
+				};
+				break;
+			case JSParserConstants.NEQS:
+				e = new Binary(a, b) {
+					@Override
+					Object apply(Interpreter interp, Object a, Object b) {
+						return !Objective.eqs(a, b);
+					}
+				};
+				break;
+			case JSParserConstants.PLUS:
+				e = new Binary(a, b) {
+					@Override
+					Object apply(Interpreter interp, Object a, Object b) {
+						return Objective.add(a, b);
+					}
+				};
+				break;
+			case JSParserConstants.MINUS:
+				e = new Binary(a, b) {
+					@Override
+					Object apply(Interpreter interp, Object a, Object b) {
+						return Objective.sub(a, b);
+					}
+				};
+				break;
+			case JSParserConstants.MUL:
+				e = new Binary(a, b) {
+					@Override
+					Object apply(Interpreter interp, Object a, Object b) {
+						return Objective.mul(a, b);
+					}
+				};
+				break;
+			case JSParserConstants.MOD:
+				e = new Binary(a, b) {
+					@Override
+					Object apply(Interpreter interp, Object a, Object b) {
+						return Objective.mod(a, b);
+					}
+				};
+				break;
+			case JSParserConstants.DIV:
+				e = new Binary(a, b) {
+					@Override
+					Object apply(Interpreter interp, Object a, Object b) {
+						return Objective.div(a, b);
+					}
+				};
+				break;
+			case JSParserConstants.SHL:
+				e = new Binary(a, b) {
+					@Override
+					Object apply(Interpreter interp, Object a, Object b) {
+						return Objective.shl(a, b);
+					}
+				};
+				break;
+			case JSParserConstants.SHR:
+				e = new Binary(a, b) {
+					@Override
+					Object apply(Interpreter interp, Object a, Object b) {
+						return Objective.shr(a, b);
+					}
+				};
+				break;
+			case JSParserConstants.SHRU:
+				e = new Binary(a, b) {
+					@Override
+					Object apply(Interpreter interp, Object a, Object b) {
+						return Objective.shru(a, b);
+					}
+				};
+				break;
+			case JSParserConstants.AND:
+				e = new Binary(a, b) {
+					@Override
+					Object apply(Interpreter interp, Object a, Object b) {
+						return Objective.and(a, b);
+					}
+				};
+				break;
+			case JSParserConstants.OR:
+				e = new Binary(a, b) {
+					@Override
+					Object apply(Interpreter interp, Object a, Object b) {
+						return Objective.or(a, b);
+					}
+				};
+				break;
+			case JSParserConstants.XOR:
+				e = new Binary(a, b) {
+					@Override
+					Object apply(Interpreter interp, Object a, Object b) {
+						return Objective.xor(a, b);
+					}
+				};
+				break;
+			case JSParserConstants.BAND:
+				e = new Binary(a, b) {
+					@Override
+					Object apply(Interpreter interp, Object a, Object b) {
+						return Objective.band(a, b);
+					}
+				};
+				break;
+			case JSParserConstants.BOR:
+				e = new Binary(a, b) {
+					@Override
+					Object apply(Interpreter interp, Object a, Object b) {
+						return Objective.bor(a, b);
+					}
+				};
+				break;
+			case JSParserConstants.INSTANCEOF:
+				return new Binary(a, b) {
+					@Override
+					Object apply(Interpreter interp, Object a, Object b) {
+						return interp.instanceOf(b, a);
+					}
+				};
+			default:
+				return new Binary(a, b) {
+					@Override
+					Object apply(Interpreter interp, Object a, Object b) {
+						return null;
+					}
+				};
+		}
+		return primitive(a) && primitive(b) ? fold(e) : e;
+	}
+
+	private static Expression assignment(final int kind, final Expression target, final Expression value) {
+		return new Expression() {
+			@Override
+			public Object evaluate(Interpreter interp) {
+				Object a = value.evaluate(interp);
+				Var b = (Var)target.evaluate(interp);
+				switch (kind) {
+					case JSParserConstants.ASSIGN:
+						return b.assign(a);
+					case JSParserConstants.AADD:
+						return b.aadd(a);
+					case JSParserConstants.ASUB:
+						return b.asub(a);
+					case JSParserConstants.AMUL:
+						return b.amul(a);
+					case JSParserConstants.ADIV:
+						return b.adiv(a);
+					case JSParserConstants.ASHL:
+						return b.ashl(a);
+					case JSParserConstants.ASHR:
+						return b.ashr(a);
+					case JSParserConstants.ASHRU:
+						return b.ashru(a);
+					case JSParserConstants.AAND:
+						return b.aand(a);
+					case JSParserConstants.AOR:
+						return b.aor(a);
+					case JSParserConstants.AXOR:
+						return b.axor(a);
+					default:
+						return null;
+				}
+			}
+		};
+	}
+
+	private static Expression unary(final int kind, final Expression operand) {
+		Expression e = new Expression() {
+			@Override
+			public Object evaluate(Interpreter interp) {
+				Object o = operand.evaluate(interp);
+				switch (kind) {
+					case JSParserConstants.DELETE:
+						return ((Var)o).delete();
+					case JSParserConstants.VOID:
+						return null;
+					case JSParserConstants.TYPEOF:
+						return Objective.typeof(o);
+					case JSParserConstants.INC:
+						return ((Var)o).inc();
+					case JSParserConstants.DEC:
+						return ((Var)o).dec();
+					case JSParserConstants.PLUS:
+						return o;
+					case JSParserConstants.MINUS:
+						return Objective.neg(o);
+					case JSParserConstants.NOT:
+						return Objective.not(o);
+					case JSParserConstants.BNOT:
+						return Objective.bnot(o);
+					default:
+						return null;
+				}
+			}
+		};
+		switch (kind) {
+			case JSParserConstants.DELETE:
+			case JSParserConstants.INC:
+			case JSParserConstants.DEC:
+				return e;
+			default:
+				return primitive(operand) ? fold(e) : e;
+		}
+	}
+}
@@ -20,7 +20,7 @@
 package org.descripter.js;
 
 import java.io.Reader;
-import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.Set;
 
 import org.descripter.js.api.*;
@@ -46,13 +46,24 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 
 	/**
 	 * <p>Evaluates a piece of script code in the current script context.</p>
+	 * <p>The parsed program is cached by the {@link Core} context of this interpreter.</p>
 	 * @param js JavaScript source.
 	 * @return The returned value from the script code.
 	 * @since Descripter 1.0
 	 */
 	@Override
 	public Object eval(String js) {
-		return eval(new StringReader(js));
+		return eval(core().program(js));
+	}
+
+	/**
+	 * <p>Evaluates a parsed program in the current script context.</p>
+	 * @param program A program node returned by {@link #prepare(Reader)} or {@link Core#program(String)}.
+	 * @return The returned value from the program.
+	 * @since Descripter 1.0
+	 */
+	public Object eval(ECMAProgram program) {
+		return program.jjtAccept(this, this);
 	}
 
 	/**
@@ -63,36 +74,106 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 	 */
 	public Object eval(Reader reader) {
 		try {
-			return new JSParser(reader).Program().jjtAccept(this, this);
+			return prepare(reader).jjtAccept(this, this);
 		} catch (ParseException e) {
 			throw new RuntimeException(e);
 		}
 	}
 
+	/**
+	 * <p>Parses the script code from the given reader and compiles the expressions of the program.</p>
+	 * <p>The returned program can be interpreted repeatedly without parsing or compiling again.</p>
+	 * @param reader A {@link Reader} to read script source.
+	 * @return The parsed and compiled program node.
+	 * @throws ParseException if the script source contains syntax errors.
+	 * @since Descripter 1.0
+	 */
+	public ECMAProgram prepare(Reader reader) throws ParseException {
+		ECMAProgram program = new JSParser(reader).Program();
+		Expression.prepare(this, program);
+		return program;
+	}
+
 	/**
 	 * <p>Visits the children nodes of the specified node with the same argument datum and 
 	 * returns the argument.</p>
+	 * <p>The visit stops at the first child that completes abruptly.</p>
 	 * @param node The node to visit.
 	 * @param data An {@link Object} datum passed to this method.
-	 * @return An {@link Object} datum.
+	 * @return An {@link Object} datum or the {@link Abrupt} completion of a child.
 	 * @since Descripter 1.0
 	 */
 	protected final Object visitChildren(AbstractNode node, Object data) {
-		node.acceptChildren(this, data);
+		for (int i = 0, n = node.jjtGetNumChildren(); i < n; i++) {
+			Object o = node.getChild(i).jjtAccept(this, data);
+			if (o instanceof Abrupt) {
+				return o;
+			}
+		}
 		return data;
 	}
 
 	/**
 	 * <p>Visits the children nodes of the specified node with the same argument datum and 
-	 * returns an array of the returned data.</p>
+	 * returns the datum returned by the last child.</p>
+	 * <p>The visit stops at the first child that completes abruptly.</p>
 	 * @param node The node to visit.
 	 * @param data An {@link Object} datum passed to this method.
-	 * @return An array of the returned {@link Object} data.
+	 * @return The returned {@link Object} datum of the last child or the {@link Abrupt} completion of a child.
 	 * @since Descripter 1.0
 	 */
 	protected final Object evalChildren(AbstractNode node, Object data) {
-		Object[] a = node.acceptChildren(this, data);
-		return a != null && a.length > 0 ? a[a.length - 1] : data;
+		int n = node.jjtGetNumChildren();
+		if (n < 1) {
+			return data;
+		}
+		Object o = null;
+		for (int i = 0; i < n; i++) {
+			o = node.getChild(i).jjtAccept(this, data);
+			if (o instanceof Abrupt) {
+				return o;
+			}
+		}
+		return o;
+	}
+
+	private static Object abrupt(Object o) {
+		return o instanceof Abrupt ? o : null;
+	}
+
+	/**
+	 * <p>The labels of a chain of nested labelled statements, all of which a loop is the target of.</p>
+	 */
+	private final static class Labels extends ArrayList<Object>
+	{
+		private static final long serialVersionUID = 4127395843165201385L;
+	}
+
+	private static Object label(Object data) {
+		return data instanceof String || data instanceof Labels ? data : null;
+	}
+
+	private static Object labels(Object outer, Object label) {
+		if (outer == null) {
+			return label;
+		}
+		Labels labels = new Labels();
+		if (outer instanceof Labels) {
+			labels.addAll((Labels)outer);
+		} else {
+			labels.add(outer);
+		}
+		labels.add(label);
+		return labels;
+	}
+
+	private static boolean loop(AbstractNode node) {
+		return node instanceof ECMADoWhileStatement ||
+		       node instanceof ECMAWhileStatement ||
+		       node instanceof ECMAForStatement ||
+		       node instanceof ECMAForVarStatement ||
+		       node instanceof ECMAForInStatement ||
+		       node instanceof ECMAForVarInStatement;
 	}
 
 	/**
@@ -117,6 +198,9 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 	@Override
 	public Object visit(ECMAThisReference node, Object data) {
 		if (DEBUG) debug(node);
+		if (data == this && node.compiled != null) {
+			return ((Expression)node.compiled).evaluate(this);
+		}
 		return get(core()._this);
 	}
 
@@ -130,6 +214,9 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 	@Override
 	public Object visit(ECMAGroup node, Object data) {
 		if (DEBUG) debug(node);
+		if (data == this && node.compiled != null) {
+			return ((Expression)node.compiled).evaluate(this);
+		}
 		return node.getChild(0).jjtAccept(this, data);
 	}
 
@@ -143,6 +230,9 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 	@Override
 	public Object visit(ECMALiteral node, Object data) {
 		if (DEBUG) debug(node);
+		if (data == this && node.compiled != null) {
+			return ((Expression)node.compiled).evaluate(this);
+		}
 		String s = node.jjtGetValue().toString();
 		switch (node.firstToken.kind) {
 			case JSParserConstants.BOOLEAN_LITERAL:
@@ -183,6 +273,9 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 	@Override
 	public Object visit(ECMAIdentifier node, Object data) {
 		if (DEBUG) debug(node);
+		if (data == this && node.compiled != null) {
+			return ((Expression)node.compiled).evaluate(this);
+		}
 		return var(data, node.jjtGetValue());
 	}
 
@@ -196,6 +289,9 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 	@Override
 	public Object visit(ECMAArrayLiteral node, Object data) {
 		if (DEBUG) debug(node);
+		if (data == this && node.compiled != null) {
+			return ((Expression)node.compiled).evaluate(this);
+		}
 		return array(node.acceptChildren(this, this));
 	}
 
@@ -236,6 +332,9 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 	@Override
 	public Object visit(ECMAAccess node, Object data) {
 		if (DEBUG) debug(node);
+		if (data == this && node.compiled != null) {
+			return ((Expression)node.compiled).evaluate(this);
+		}
 		data = node.getChild(0).jjtAccept(this, data);
 		for (int i = 1; i < node.jjtGetNumChildren(); i++) {
 			data = node.getChild(i).jjtAccept(this, data);
@@ -253,6 +352,9 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 	@Override
 	public Object visit(ECMANewOperation node, Object data) {
 		if (DEBUG) debug(node);
+		if (data == this && node.compiled != null) {
+			return ((Expression)node.compiled).evaluate(this);
+		}
 		return alloc(
 				node.getChild(0).jjtAccept(this, this),
 				node.getChild(1).acceptChildren(this, this)
@@ -269,6 +371,9 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 	@Override
 	public Object visit(ECMAAllocation node, Object data) {
 		if (DEBUG) debug(node);
+		if (data == this && node.compiled != null) {
+			return ((Expression)node.compiled).evaluate(this);
+		}
 		return alloc(
 				node.getChild(0).jjtAccept(this, this)
 		);
@@ -323,6 +428,9 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 	@Override
 	public Object visit(ECMAPostfixExpression node, Object data) {
 		if (DEBUG) debug(node);
+		if (data == this && node.compiled != null) {
+			return ((Expression)node.compiled).evaluate(this);
+		}
 		Var v = (Var)node.getChild(0).jjtAccept(this, this);
 		switch (node.getChild(1).firstToken.kind) {
 			case JSParserConstants.INC:
@@ -452,6 +560,9 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 	@Override
 	public Object visit(ECMAUnaryExpression node, Object data) {
 		if (DEBUG) debug(node);
+		if (data == this && node.compiled != null) {
+			return ((Expression)node.compiled).evaluate(this);
+		}
 		return node.getChild(0).jjtAccept(this, node.getChild(1).jjtAccept(this, this));
 	}
 
@@ -465,6 +576,9 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 	@Override
 	public Object visit(ECMABinaryOperation node, Object data) {
 		if (DEBUG) debug(node);
+		if (data == this && node.compiled != null) {
+			return ((Expression)node.compiled).evaluate(this);
+		}
 		Object o = node.getChild(0).jjtAccept(this, this);
 		for (int i = 1, n = node.jjtGetNumChildren(); i < n; i += 2) {
 			o = node.getChild(i).jjtAccept(
@@ -484,6 +598,9 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 	@Override
 	public Object visit(ECMAAndOperation node, Object data) {
 		if (DEBUG) debug(node);
+		if (data == this && node.compiled != null) {
+			return ((Expression)node.compiled).evaluate(this);
+		}
 		Object o = node.getChild(0).jjtAccept(this, this);
 		for (int i = 1, n = node.jjtGetNumChildren(); i < n; i += 2) {
 			if (bool(o)) {
@@ -505,6 +622,9 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 	@Override
 	public Object visit(ECMAOrOperation node, Object data) {
 		if (DEBUG) debug(node);
+		if (data == this && node.compiled != null) {
+			return ((Expression)node.compiled).evaluate(this);
+		}
 		Object o = node.getChild(0).jjtAccept(this, this);
 		for (int i = 1, n = node.jjtGetNumChildren(); i < n; i += 2) {
 			if (bnot(o)) {
@@ -526,6 +646,9 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 	@Override
 	public Object visit(ECMAConditionalExpression node, Object data) {
 		if (DEBUG) debug(node);
+		if (data == this && node.compiled != null) {
+			return ((Expression)node.compiled).evaluate(this);
+		}
 		return bool(node.getChild(0).jjtAccept(this, this)) ?
 				    node.getChild(1).jjtAccept(this, this) :
 				    node.getChild(2).jjtAccept(this, this);
@@ -541,6 +664,9 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 	@Override
 	public Object visit(ECMAAssignmentExpression node, Object data) {
 		if (DEBUG) debug(node);
+		if (data == this && node.compiled != null) {
+			return ((Expression)node.compiled).evaluate(this);
+		}
 		return node.getChild(1).jjtAccept(this, new Object[]{
 				node.getChild(2).jjtAccept(this, this),
 				node.getChild(0).jjtAccept(this, this)
@@ -679,9 +805,9 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 	public Object visit(ECMAIfStatement node, Object data) {
 		if (DEBUG) debug(node);
 		if (bool(node.getChild(0).jjtAccept(this, this))) {
-			node.getChild(1).jjtAccept(this, this);
+			return abrupt(node.getChild(1).jjtAccept(this, this));
 		} else if (node.jjtGetNumChildren() > 2) {
-			node.getChild(2).jjtAccept(this, this);
+			return abrupt(node.getChild(2).jjtAccept(this, this));
 		}
 		return null;
 	}
@@ -696,15 +822,14 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 	@Override
 	public Object visit(ECMADoWhileStatement node, Object data) {
 		if (DEBUG) debug(node);
+		Object label = label(data);
 		do {
-			try {
-				node.getChild(0).jjtAccept(this, this);
-			} catch (Break e) {
-				e.tryThrow(null);
-				break;
-			} catch (Continue e) {
-				e.tryThrow(null);
-				continue;
+			Object o = node.getChild(0).jjtAccept(this, this);
+			if (o instanceof Abrupt) {
+				if (o instanceof Continue && ((Abrupt)o).targets(label)) {
+					continue;
+				}
+				return o instanceof Break && ((Abrupt)o).targets(label) ? null : o;
 			}
 		} while (bool(node.getChild(1).jjtAccept(this, this)));
 		return null;
@@ -720,17 +845,16 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 	@Override
 	public Object visit(ECMAWhileStatement node, Object data) {
 		if (DEBUG) debug(node);
+		Object label = label(data);
 		while (bool(node.getChild(0).jjtAccept(this, this))) {
-			try {
-				node.getChild(1).jjtAccept(this, this);
-			} catch (Break e) {
-				e.tryThrow(null);
-				break;
-			} catch (Continue e) {
-				e.tryThrow(null);
-				continue;
+			Object o = node.getChild(1).jjtAccept(this, this);
+			if (o instanceof Abrupt) {
+				if (o instanceof Continue && ((Abrupt)o).targets(label)) {
+					continue;
+				}
+				return o instanceof Break && ((Abrupt)o).targets(label) ? null : o;
 			}
-		};
+		}
 		return null;
 	}
 
@@ -744,7 +868,7 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 	@Override
 	public Object visit(ECMAForStatement node, Object data) {
 		if (DEBUG) debug(node);
-		return visitForStatement(node);
+		return visitForStatement(node, label(data));
 	}
 
 	/**
@@ -753,19 +877,14 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 	 * @return An {@link Object} datum.
 	 * @since Descripter 1.0
 	 */
-	protected Object visitForStatement(AbstractNode node) {
+	protected Object visitForStatement(AbstractNode node, Object label) {
 		node.getChild(0).jjtAccept(this, this);
 		while (bool(node.getChild(1).jjtAccept(this, true))) {
-			try {
-				node.getChild(3).jjtAccept(this, this);
-				node.getChild(2).jjtAccept(this, this);
-			} catch (Break e) {
-				e.tryThrow(null);
-				break;
-			} catch (Continue e) {
-				e.tryThrow(null);
-				continue;
+			Object o = node.getChild(3).jjtAccept(this, this);
+			if (o instanceof Abrupt && !(o instanceof Continue && ((Abrupt)o).targets(label))) {
+				return o instanceof Break && ((Abrupt)o).targets(label) ? null : o;
 			}
+			node.getChild(2).jjtAccept(this, this);
 		}
 		return null;
 	}
@@ -780,7 +899,7 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 	@Override
 	public Object visit(ECMAForVarStatement node, Object data) {
 		if (DEBUG) debug(node);
-		return new Interpreter(this).visitForStatement(node);
+		return new Interpreter(this).visitForStatement(node, label(data));
 	}
 
 	/**
@@ -793,7 +912,7 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 	@Override
 	public Object visit(ECMAForVarInStatement node, Object data) {
 		if (DEBUG) debug(node);
-		return new Interpreter(this).visitForInStatement(node);
+		return new Interpreter(this).visitForInStatement(node, label(data));
 	}
 
 	/**
@@ -802,7 +921,7 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 	 * @return An {@link Object} datum.
 	 * @since Descripter 1.0
 	 */
-	protected Object visitForInStatement(AbstractNode node) {
+	protected Object visitForInStatement(AbstractNode node, Object label) {
 		if (DEBUG) debug(node);
 		Var var = (Var)node.getChild(0).jjtAccept(this, this);
 		Objective<?> base = object(node.getChild(1).jjtAccept(this, this));
@@ -810,14 +929,9 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 			Set<Key> keys = base.keys();
 			for (Key k : keys) {
 				var.assign(k);
-				try {
-					node.getChild(2).jjtAccept(this, this);
-				} catch (Break e) {
-					e.tryThrow(null);
-					break;
-				} catch (Continue e) {
-					e.tryThrow(null);
-					continue;
+				Object o = node.getChild(2).jjtAccept(this, this);
+				if (o instanceof Abrupt && !(o instanceof Continue && ((Abrupt)o).targets(label))) {
+					return o instanceof Break && ((Abrupt)o).targets(label) ? null : o;
 				}
 			}
 		}
@@ -834,7 +948,7 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 	@Override
 	public Object visit(ECMAForInStatement node, Object data) {
 		if (DEBUG) debug(node);
-		return visitForInStatement(node);
+		return visitForInStatement(node, label(data));
 	}
 
 	/**
@@ -847,8 +961,13 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 	@Override
 	public Object visit(ECMAContinueStatement node, Object data) {
 		if (DEBUG) debug(node);
-		throw node.jjtGetNumChildren() < 1 ? new Continue() :
-			new Continue(node.getChild(0).jjtGetValue());
+		if (node.jjtGetNumChildren() < 1) {
+			return Continue.CONTINUE;
+		}
+		if (node.compiled == null) {
+			node.compiled = new Continue(node.getChild(0).jjtGetValue());
+		}
+		return node.compiled;
 	}
 
 	/**
@@ -861,8 +980,13 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 	@Override
 	public Object visit(ECMABreakStatement node, Object data) {
 		if (DEBUG) debug(node);
-		throw node.jjtGetNumChildren() < 1 ? new Break() :
-				new Break(node.getChild(0).jjtGetValue());
+		if (node.jjtGetNumChildren() < 1) {
+			return Break.BREAK;
+		}
+		if (node.compiled == null) {
+			node.compiled = new Break(node.getChild(0).jjtGetValue());
+		}
+		return node.compiled;
 	}
 
 	/**
@@ -875,7 +999,7 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 	@Override
 	public Object visit(ECMAReturnStatement node, Object data) {
 		if (DEBUG) debug(node);
-		throw new Return(node.jjtGetNumChildren() < 1 ? null :
+		return new Return(node.jjtGetNumChildren() < 1 ? null :
 			node.getChild(0).jjtAccept(this, data));
 	}
 
@@ -889,15 +1013,16 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 	@Override
 	public Object visit(final ECMAWithStatement node, Object data) {
 		if (DEBUG) debug(node);
+		final Object[] o = new Object[1];
 		new With<Interpreter>(this, node.getChild(0).jjtAccept(this, this)) {
 			@Override
 			public void run() {
 				Interpreter interp = new Interpreter(this);
-				node.getChild(1).jjtAccept(interp, interp);
+				o[0] = node.getChild(1).jjtAccept(interp, interp);
 			}
 			
 		}.run();
-		return null;
+		return abrupt(o[0]);
 	}
 
 	/**
@@ -910,13 +1035,10 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 	@Override
 	public Object visit(ECMASwitchStatement node, Object data) {
 		if (DEBUG) debug(node);
-		try {
-			return node.getChild(1).jjtAccept(this, new Object[]{
-					node.getChild(0).jjtAccept(this, this), false
-				});
-		} catch (Break e) {
-			return null;
-		}
+		Object o = node.getChild(1).jjtAccept(this, new Object[]{
+				node.getChild(0).jjtAccept(this, this), false
+			});
+		return o instanceof Break && ((Abrupt)o).targets(null) ? null : o;
 	}
 
 	/**
@@ -983,17 +1105,12 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 	public Object visit(ECMALabelledStatement node, Object data) {
 		if (DEBUG) debug(node);
 		Object label = node.getChild(0).jjtGetValue();
-		while (true) {
-			try {
-				node.getChild(1).jjtAccept(this, this);
-			} catch (Break e) {
-				e.tryThrow(label);
-				return null;
-			} catch (Continue e) {
-				e.tryThrow(label);
-				continue;
-			}
-		}
+		AbstractNode statement = node.getChild(1);
+		Object o = statement.jjtAccept(
+				this,
+				loop(statement) || statement instanceof ECMALabelledStatement ? labels(label(data), label) : this
+		);
+		return o instanceof Break && ((Abrupt)o).targets(label) ? null : abrupt(o);
 	}
 
 	/**
@@ -1006,7 +1123,7 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 	@Override
 	public Object visit(ECMAThrowStatement node, Object data) {
 		if (DEBUG) debug(node);
-		throw new Thrown(node.getChild(0).jjtAccept(this, this));
+		throw thrown(node.getChild(0).jjtAccept(this, this));
 	}
 
 	/**
@@ -1025,21 +1142,22 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 			return node.getChild(0).jjtAccept(this, this);
 		} catch (Thrown e) {
 			if (last > 1) {
-				node.getChild(last - 1).jjtAccept(this, e);
-				node.getChild(last).jjtAccept(this, this);
+				Object o = node.getChild(last - 1).jjtAccept(this, e);
+				catched = true;
+				Object f = node.getChild(last).jjtAccept(this, this);
+				return f instanceof Abrupt ? f : abrupt(o);
 			} else {
-				node.getChild(last).jjtAccept(this, e);
+				catched = true;
+				return abrupt(node.getChild(last).jjtAccept(this, e));
 			}
-			catched = true;
-		} catch (Abrupt e) {
-			catched = true;
-			throw e;
 		} finally {
 			if (!catched) {
-				node.getChild(last).jjtAccept(this, this);
+				Object f = node.getChild(last).jjtAccept(this, this);
+				if (f instanceof Abrupt) {
+					return f;
+				}
 			}
 		}
-		return null;
 	}
 
 	/**
@@ -1068,6 +1186,9 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 	public Object visit(ECMAFinally node, Object data) {
 		if (DEBUG) debug(node);
 		Object o = node.getChild(0).jjtAccept(this, this);
+		if (o instanceof Abrupt) {
+			return o;
+		}
 		if (data instanceof Thrown) {
 			throw (Thrown)data;
 		}
@@ -1107,7 +1228,13 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 	 * @since Descripter 1.0
 	 */
 	protected Object visitFunction(final AbstractNode node, Object data) {
+		final boolean uses = arguments(node.getChild(node.jjtGetNumChildren() - 1));
 		Function<?> f = new Function<Interpreter>(this) {
+			@Override
+			protected boolean arguments() {
+				return uses;
+			}
+
 			@Override
 			protected Functor<Interpreter> functor() {
 				return new Functor<Interpreter>(this) {
@@ -1116,18 +1243,23 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 						Interpreter interp = new Interpreter(this);
 						int n = node.jjtGetNumChildren();
 						node.getChild(n - 2).jjtAccept(interp, this);
+						Object o;
 						try {
-							return interp.evalChildren(node.getChild(n - 1), this);
-						} catch (Return e) {
-							return e.value;
-						} catch (Break e) {
-							if (e.value != null) {
-								throw new RuntimeException(e);
+							o = interp.evalChildren(node.getChild(n - 1), this);
+						} catch (Abrupt e) {
+							o = e;
+						}
+						if (o instanceof Return) {
+							return ((Return)o).value;
+						} else if (o instanceof Break) {
+							if (((Break)o).value != null) {
+								throw new RuntimeException((Break)o);
 							}
 							return null;
-						} catch (Abrupt e) {
-							throw new RuntimeException(e);
+						} else if (o instanceof Abrupt) {
+							throw new RuntimeException((Abrupt)o);
 						}
+						return o;
 					}
 				};
 			}
@@ -1164,7 +1296,7 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 		int n = node.jjtGetNumChildren();
 		Functor<?> f = (Functor<?>)data;
 		for (int i = 0; i < n; i++) {
-			f.my(node.getChild(i).jjtGetValue().toString()).assign(f.arguments().get(i));			
+			f.my(node.getChild(i).jjtGetValue().toString()).assign(f.argument(i));			
 		}
 		return f;
 	}
@@ -1179,6 +1311,10 @@ public class Interpreter extends Visitor<Script<?>> implements JSParserVisitor
 	@Override
 	public Object visit(ECMAProgram node, Object data) {
 		if (DEBUG) debug(node);
-		return evalChildren(node, data);
+		Object o = evalChildren(node, data);
+		if (o instanceof Abrupt) {
+			throw (Abrupt)o;
+		}
+		return o;
 	}
 }
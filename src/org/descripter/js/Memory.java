@@ -20,29 +20,52 @@
 package org.descripter.js;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.ReentrantLock;
 
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.DiagnosticListener;
 import javax.tools.FileObject;
 import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
 import javax.tools.JavaFileManager;
 import javax.tools.JavaFileObject;
 import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
 import javax.tools.ToolProvider;
 import javax.tools.JavaFileObject.Kind;
 
 /**
  * <p>Represents a memory class loader to compile Java source code on the fly.</p>
+ * <p>This class loader is parallel capable and guards its state with a {@link ReentrantLock} 
+ * instead of monitors, so that loading classes from virtual threads does not pin their carriers.</p>
  * 
  * @author <a href="mailto:jianjunliu@126.com">J.J.Liu (Jianjun Liu)</a> at <a href="http://www.descripter.org" target="_blank">http://www.descripter.org</a>
  * @since Descripter 1.0
  */
 public class Memory extends ClassLoader
 {
+	static {
+		registerAsParallelCapable();
+	}
+
 	private final Map<String, ByteArrayOutputStream> map = new HashMap<String, ByteArrayOutputStream>();
+	private final ReentrantLock lock = new ReentrantLock();
 	private final boolean verbose;
 
 	/**
@@ -70,8 +93,14 @@ public class Memory extends ClassLoader
 	 * @since Descripter 1.0
 	 */
 	@Override
-	protected synchronized Class<?> findClass(String name) throws ClassNotFoundException {
-		ByteArrayOutputStream baos = map.remove(name);
+	protected Class<?> findClass(String name) throws ClassNotFoundException {
+		ByteArrayOutputStream baos;
+		lock.lock();
+		try {
+			baos = map.remove(name);
+		} finally {
+			lock.unlock();
+		}
 		if (baos != null) {
 			byte[] ba = baos.toByteArray();
 			return defineClass(name, ba, 0, ba.length);
@@ -79,46 +108,250 @@ public class Memory extends ClassLoader
 		return super.findClass(name);
 	}
 
+	/**
+	 * <p>Defines a class with the specified bytecode to be loaded by this class loader.</p>
+	 * @param name The name of the class.
+	 * @param code The bytecode of the class.
+	 * @see Program#define(Memory, String, org.descripter.js.parse.ECMAProgram)
+	 * @since Descripter 1.0
+	 */
+	public void define(String name, byte[] code) {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream(code.length);
+		baos.write(code, 0, code.length);
+		lock.lock();
+		try {
+			map.put(name, baos);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * <p>Returns the bytecode of the specified class and its nested classes that are compiled 
+	 * or defined but not yet loaded by this class loader.</p>
+	 * @param name The name of the class.
+	 * @return A map from class names to bytecode.
+	 * @since Descripter 1.0
+	 */
+	public Map<String, byte[]> classes(String name) {
+		Map<String, byte[]> classes = new LinkedHashMap<String, byte[]>();
+		lock.lock();
+		try {
+			for (Map.Entry<String, ByteArrayOutputStream> e : map.entrySet()) {
+				if (e.getKey().equals(name) || e.getKey().startsWith(name + '$')) {
+					classes.put(e.getKey(), e.getValue().toByteArray());
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+		return classes;
+	}
+
+	/**
+	 * <p>Returns the class of the specified name if it has been loaded by this class loader.</p>
+	 * @param name The name of the class.
+	 * @return The loaded class or <tt>null</tt> if it is not loaded yet.
+	 * @since Descripter 1.0
+	 */
+	public Class<?> loaded(String name) {
+		return findLoadedClass(name);
+	}
+
+	/**
+	 * <p>The maximum number of compilations that run at the same time.</p>
+	 * <p>Each running compilation holds one of the pooled file managers, so this is also the 
+	 * maximum number of file managers kept open.</p>
+	 * @since Descripter 1.0
+	 */
+	public final static int COMPILERS = Math.max(Runtime.getRuntime().availableProcessors(), 1);
+
+	private final static Semaphore permits = new Semaphore(COMPILERS, true);
+	private final static Queue<Files> pool = new ConcurrentLinkedQueue<Files>();
+	private static JavaCompiler javac;
+
+	private final static synchronized JavaCompiler javac() {
+		if (javac == null) {
+			javac = ToolProvider.getSystemJavaCompiler();
+			if (javac == null) {
+				throw new IllegalStateException("No Java compiler is available");
+			}
+		}
+		return javac;
+	}
+
+	/**
+	 * <p>A pooled file manager that remembers the listings of the platform and class path packages, 
+	 * so that compilations after the first one do not scan the class path again.</p>
+	 */
+	private final static class Files extends ForwardingJavaFileManager<StandardJavaFileManager>
+	{
+		private final Map<List<Object>, List<JavaFileObject>> lists = new HashMap<List<Object>, List<JavaFileObject>>();
+
+		Files(StandardJavaFileManager files) {
+			super(files);
+		}
+
+		@Override
+		public Iterable<JavaFileObject> list(Location location, String pkg, Set<Kind> kinds, boolean recurse)
+				throws IOException {
+			if (location == StandardLocation.SOURCE_PATH || location == StandardLocation.CLASS_OUTPUT) {
+				return super.list(location, pkg, kinds, recurse);
+			}
+			List<Object> key = Arrays.<Object>asList(location, pkg, kinds, recurse);
+			List<JavaFileObject> list = lists.get(key);
+			if (list == null) {
+				list = new ArrayList<JavaFileObject>();
+				for (JavaFileObject f : super.list(location, pkg, kinds, recurse)) {
+					list.add(f);
+				}
+				lists.put(key, list);
+			}
+			return list;
+		}
+	}
+
+	private final static Files acquire() {
+		permits.acquireUninterruptibly();
+		Files files = pool.poll();
+		if (files == null) {
+			try {
+				files = new Files(javac().getStandardFileManager(null, null, null));
+			} catch (RuntimeException e) {
+				permits.release();
+				throw e;
+			}
+		}
+		return files;
+	}
+
+	private final static void release(Files files) {
+		pool.offer(files);
+		permits.release();
+	}
+
+	private final static class Source extends SimpleJavaFileObject
+	{
+		final String name;
+		final String code;
+
+		Source(String name, String code) {
+			super(URI.create("string:///" + name.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+			this.name = name;
+			this.code = code;
+		}
+
+		@Override
+		public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+			return code;
+		}
+	}
+
+	private final Boolean task(List<Source> units, DiagnosticListener<? super JavaFileObject> listener) {
+		final Map<String, ByteArrayOutputStream> out = new HashMap<String, ByteArrayOutputStream>();
+		Boolean ok;
+		Files files = acquire();
+		try {
+			ok = javac().getTask(
+					null,
+					new ForwardingJavaFileManager<JavaFileManager>(files) {
+						@Override
+						public JavaFileObject getJavaFileForOutput(
+								Location location, final String name, Kind kind, FileObject source
+						) {
+							return new SimpleJavaFileObject(URI.create(
+									"memo:///" + name.replace('.', '/') + kind.extension), kind) {
+								@Override
+								public OutputStream openOutputStream() {
+									ByteArrayOutputStream baos = new ByteArrayOutputStream();
+									out.put(name, baos);
+									return baos;
+								}
+							};
+						}
+
+						@Override
+						public void close() {
+						}
+					},
+					listener,
+					verbose ? Arrays.asList("-verbose") : null,
+					null,
+					units
+			).call();
+		} finally {
+			release(files);
+		}
+		if (ok) {
+			lock.lock();
+			try {
+				map.putAll(out);
+			} finally {
+				lock.unlock();
+			}
+		}
+		return ok;
+	}
+
 	/**
 	 * <p>Compiles the specified Java source.</p>
+	 * <p>Compilations share one Java compiler and reuse pooled file managers, and at most 
+	 * {@link #COMPILERS} of them run at the same time.</p>
 	 * @param name The name of the target class.
 	 * @param code The code of the Java source.
 	 * @return <tt>true</tt> if the compilation is successful; <tt>false</tt>, otherwise.
 	 * @since Descripter 1.0
 	 */
-	public Boolean compile(final String name, final String code) {
-		return ToolProvider.getSystemJavaCompiler().getTask(
-				null,
-				new ForwardingJavaFileManager<JavaFileManager>(
-						ToolProvider.getSystemJavaCompiler().getStandardFileManager(null, null, null)
-				) {
-					@Override
-					public JavaFileObject getJavaFileForOutput(
-							Location location, final String name, Kind kind, FileObject source
-					) {
-						return new SimpleJavaFileObject(URI.create(
-								"memo:///" + name.replace('.', '/') + kind.extension), kind) {
-							@Override
-							public OutputStream openOutputStream() {
-								ByteArrayOutputStream baos = new ByteArrayOutputStream();
-								map.put(name, baos);
-								return baos;
-							}
-						};
-					}
-				},
-				null,
-				verbose ? Arrays.asList("-verbose") : null,
-				null,
-				Arrays.asList(new SimpleJavaFileObject(
-						URI.create("string:///" + name.replace('.', '/') + Kind.SOURCE.extension),
-						Kind.SOURCE
-				) {
-					@Override
-					public CharSequence getCharContent(boolean ignoreEncodingErrors) {
-						return code;
-					}
-				})
-		).call();
+	public Boolean compile(String name, String code) {
+		return task(Arrays.asList(new Source(name, code)), null);
+	}
+
+	/**
+	 * <p>Compiles a batch of Java sources in one compilation task.</p>
+	 * <p>If some of the sources fail, they are reported and the rest are compiled again without 
+	 * them, so that a broken source does not keep the others from loading.</p>
+	 * @param units A map from the names of the target classes to the code of their Java sources.
+	 * @return A map from the names of the sources that failed to compile to their diagnostics, 
+	 * empty if all the sources are compiled successfully.
+	 * @since Descripter 1.0
+	 */
+	public Map<String, List<Diagnostic<? extends JavaFileObject>>> compileAll(Map<String, String> units) {
+		Map<String, List<Diagnostic<? extends JavaFileObject>>> failed =
+			new LinkedHashMap<String, List<Diagnostic<? extends JavaFileObject>>>();
+		List<Source> todo = new ArrayList<Source>();
+		for (Map.Entry<String, String> e : units.entrySet()) {
+			todo.add(new Source(e.getKey(), e.getValue()));
+		}
+		while (!todo.isEmpty()) {
+			DiagnosticCollector<JavaFileObject> dc = new DiagnosticCollector<JavaFileObject>();
+			if (task(todo, dc)) {
+				break;
+			}
+			Map<String, List<Diagnostic<? extends JavaFileObject>>> errs =
+				new LinkedHashMap<String, List<Diagnostic<? extends JavaFileObject>>>();
+			for (Diagnostic<? extends JavaFileObject> d : dc.getDiagnostics()) {
+				if (d.getKind() == Diagnostic.Kind.ERROR && d.getSource() instanceof Source) {
+					errs.put(((Source)d.getSource()).name, new ArrayList<Diagnostic<? extends JavaFileObject>>());
+				}
+			}
+			if (errs.isEmpty()) {
+				for (Source u : todo) {
+					failed.put(u.name, dc.getDiagnostics());
+				}
+				break;
+			}
+			for (Diagnostic<? extends JavaFileObject> d : dc.getDiagnostics()) {
+				if (d.getSource() instanceof Source && errs.containsKey(((Source)d.getSource()).name)) {
+					errs.get(((Source)d.getSource()).name).add(d);
+				}
+			}
+			for (Iterator<Source> it = todo.iterator(); it.hasNext();) {
+				if (errs.containsKey(it.next().name)) {
+					it.remove();
+				}
+			}
+			failed.putAll(errs);
+		}
+		return failed;
 	}
 }
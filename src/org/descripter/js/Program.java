@@ -0,0 +1,168 @@
+
+/*
+ *  Descripter 1.0 - Java Script Engines
+ *  Copyright (C) 2010-2015  Jianjun Liu (J.J.Liu)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.descripter.js;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.descripter.js.api.Script;
+import org.descripter.js.parse.AbstractNode;
+import org.descripter.js.parse.ECMAJavaStatement;
+import org.descripter.js.parse.ECMAProgram;
+
+/**
+ * <p>An abstract base class for script classes that run parsed and compiled programs.</p>
+ * <p>This class serves as the backend of {@link Memory} that does not need a Java compiler. Instead of
+ * descripting a program into Java source and compiling it with <tt>javac</tt>, {@link #define(Memory, String, ECMAProgram)}
+ * directly emits the bytecode of a small subclass bound to the program, whose expressions have been
+ * compiled into {@link Expression}s. The subclass is constructed and run the same way as a descripted
+ * class, but <tt>#</tt> Java statements are not supported.</p>
+ *
+ * @see Interpreter#prepare(java.io.Reader)
+ *
+ * @author <a href="mailto:jianjunliu@126.com">J.J.Liu (Jianjun Liu)</a> at <a href="http://www.descripter.org" target="_blank">http://www.descripter.org</a>
+ * @since Descripter 1.0
+ */
+public abstract class Program extends Script<Script<?>>
+{
+	private final ECMAProgram program;
+
+	/**
+	 * <p>Constructs a script context of this type.</p>
+	 * @param with The containing script context.
+	 * @param program The {@link ECMAProgram} to run.
+	 * @since Descripter 1.0
+	 */
+	protected Program(Script<?> with, Object program) {
+		super(with);
+		this.program = (ECMAProgram)program;
+	}
+
+	/**
+	 * <p>Runs the program of this script context.</p>
+	 * @since Descripter 1.0
+	 */
+	@Override
+	public void run() {
+		new Interpreter(this).eval(program);
+	}
+
+	/**
+	 * <p>Defines a script class of the specified name that runs a program.</p>
+	 * <p>The defined class has a public constructor with the containing script context as the only
+	 * parameter, like a descripted class does.</p>
+	 * @param memo The {@link Memory} class loader to define the class in.
+	 * @param name The name of the class.
+	 * @param program A parsed and compiled program.
+	 * @return The defined class.
+	 * @throws ClassNotFoundException if the class fails to load.
+	 * @throws IllegalArgumentException if the program contains <tt>#</tt> Java statements.
+	 * @since Descripter 1.0
+	 */
+	public static Class<?> define(Memory memo, String name, ECMAProgram program) throws ClassNotFoundException {
+		AbstractNode java = java(program);
+		if (java != null) {
+			throw new IllegalArgumentException("# Java statements need javac, at line " +
+					java.firstToken.beginLine + ", column " + java.firstToken.beginColumn);
+		}
+		memo.define(name, stub(name.replace('.', '/')));
+		Class<?> c = memo.loadClass(name);
+		try {
+			c.getField(PROGRAM).set(null, program);
+		} catch (Exception e) {
+			throw new ClassNotFoundException(name, e);
+		}
+		return c;
+	}
+
+	private static AbstractNode java(AbstractNode node) {
+		if (node instanceof ECMAJavaStatement) {
+			return node;
+		}
+		for (int i = 0, n = node.jjtGetNumChildren(); i < n; i++) {
+			AbstractNode java = java(node.getChild(i));
+			if (java != null) {
+				return java;
+			}
+		}
+		return null;
+	}
+
+	private final static String PROGRAM = "program";
+
+	private final static String[] POOL = {
+		null,
+		"org/descripter/js/Program",
+		"<init>",
+		"(Lorg/descripter/js/api/Script;)V",
+		"Code",
+		PROGRAM,
+		"Ljava/lang/Object;",
+		"(Lorg/descripter/js/api/Script;Ljava/lang/Object;)V"
+	};
+
+	private static byte[] stub(String name) {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream(256);
+		DataOutputStream out = new DataOutputStream(baos);
+		try {
+			out.writeInt(0xCAFEBABE);
+			out.writeShort(0);
+			out.writeShort(50);
+			out.writeShort(15);
+			for (int i = 0; i < POOL.length; i++) {
+				out.writeByte(1);
+				out.writeUTF(i == 0 ? name : POOL[i]);
+			}
+			out.writeByte(7);  out.writeShort(1);               // #9  this class
+			out.writeByte(7);  out.writeShort(2);               // #10 super class
+			out.writeByte(12); out.writeShort(6); out.writeShort(7); // #11 program:Object
+			out.writeByte(9);  out.writeShort(9); out.writeShort(11); // #12 this.program
+			out.writeByte(12); out.writeShort(3); out.writeShort(8); // #13 <init>(Script, Object)
+			out.writeByte(10); out.writeShort(10); out.writeShort(13); // #14 super.<init>
+			out.writeShort(0x0021);
+			out.writeShort(9);
+			out.writeShort(10);
+			out.writeShort(0);
+			out.writeShort(1);
+			out.writeShort(0x0009); out.writeShort(6); out.writeShort(7); out.writeShort(0);
+			out.writeShort(1);
+			out.writeShort(0x0001); out.writeShort(3); out.writeShort(4);
+			out.writeShort(1);
+			out.writeShort(5);
+			out.writeInt(21);
+			out.writeShort(3);
+			out.writeShort(2);
+			out.writeInt(9);
+			out.writeByte(0x2a);                                // aload_0
+			out.writeByte(0x2b);                                // aload_1
+			out.writeByte(0xb2); out.writeShort(12);            // getstatic program
+			out.writeByte(0xb7); out.writeShort(14);            // invokespecial <init>
+			out.writeByte(0xb1);                                // return
+			out.writeShort(0);
+			out.writeShort(0);
+			out.writeShort(0);
+			out.flush();
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		return baos.toByteArray();
+	}
+}
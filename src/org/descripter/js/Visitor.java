@@ -20,6 +20,10 @@
 package org.descripter.js;
 
 import org.descripter.js.api.Script;
+import org.descripter.js.parse.AbstractNode;
+import org.descripter.js.parse.ECMAFunctionDeclaration;
+import org.descripter.js.parse.ECMAFunctionExpression;
+import org.descripter.js.parse.ECMAIdentifier;
 
 /**
  * <p>An abstract base class for JavaScript parser visitors.</p>
@@ -54,6 +58,30 @@ public abstract class Visitor<S extends Script<?>> extends Script<S>
 		super(script);
 	}
 
+	/**
+	 * <p>Tells if a function body may refer to its <tt>arguments</tt> object.</p>
+	 * <p>This method looks for the <tt>arguments</tt> and <tt>eval</tt> identifiers in the body, 
+	 * skipping the bodies of nested functions, which have <tt>arguments</tt> of their own.</p>
+	 * @param node The body of a function or any node in it
+	 * @return <tt>true</tt> if the body may refer to its <tt>arguments</tt> object; 
+	 * <tt>false</tt>, otherwise.
+	 * @since Descripter 1.0
+	 */
+	protected static boolean arguments(AbstractNode node) {
+		if (node instanceof ECMAIdentifier) {
+			String id = String.valueOf(node.jjtGetValue());
+			return "arguments".equals(id) || "eval".equals(id);
+		}
+		for (int i = 0, n = node.jjtGetNumChildren(); i < n; i++) {
+			AbstractNode c = node.getChild(i);
+			if (!(c instanceof ECMAFunctionDeclaration || c instanceof ECMAFunctionExpression) && 
+					arguments(c)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * <p>Executes the current script context.</p>
 	 * <p>This method simply throws an {@link UnsupportedOperationException}.</p>
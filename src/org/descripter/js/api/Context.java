@@ -31,7 +31,14 @@ import java.util.Set;
  */
 public class Context<S, T, W extends Context<S, T, ?>>
 {
-	private final HashMap<S, T> map = new HashMap<S, T>();
+	private final static class Lookup
+	{
+		Context<?, ?, ?> in;
+		int version;
+	}
+
+	private HashMap<S, T> map;
+	private HashMap<S, Lookup> lookups;
 	private boolean readOnly = false;
 	/**
 	 * <p>The container of the current context.</p>
@@ -65,6 +72,9 @@ public class Context<S, T, W extends Context<S, T, ?>>
 	public void readOnly(boolean readOnly) {
 		if (this.readOnly ^ readOnly) {
 			this.readOnly = readOnly;
+			if (map == null) {
+				return;
+			}
 			for (T t : map.values()) {
 				if (t instanceof Context) {
 					((Context<?, ?, ?>)t).readOnly(readOnly);
@@ -80,11 +90,60 @@ public class Context<S, T, W extends Context<S, T, ?>>
 	 * @since Descripter 1.0
 	 */
 	public Context<S, T, ?> in(S key) {
-		if (map.containsKey(key) || with == null) {
+		if (map != null && map.containsKey(key) || with == null) {
 			return this;
 		} else {
+			return lookup(key);
+		}
+	}
+
+	/**
+	 * <p>Finds the context that owns the specified key among the containers of the current one.</p>
+	 * <p>The context found is cached with the current context until a context along the chain 
+	 * of containers starts to own the key.</p>
+	 * @param key A key to lookup
+	 * @return The most inner container that owns the specified key or the most outer one if no 
+	 * such containers.
+	 * @since Descripter 1.0
+	 */
+	@SuppressWarnings("unchecked")
+	private final Context<S, T, ?> lookup(S key) {
+		if (!(key instanceof Key) || key.hashCode() >= 0) {
 			return with.in(key);
 		}
+		Key k = (Key)key;
+		if (!k.cached) {
+			k.cached = true;
+		}
+		int version = k.version;
+		if (lookups == null) {
+			lookups = new HashMap<S, Lookup>();
+		}
+		Lookup l = lookups.get(key);
+		if (l == null) {
+			l = new Lookup();
+			lookups.put(key, l);
+		} else if (l.version == version) {
+			return (Context<S, T, ?>)l.in;
+		}
+		l.in = with.in(key);
+		l.version = version;
+		return (Context<S, T, ?>)l.in;
+	}
+
+	/**
+	 * <p>Invalidates the cached lookups of the specified key.</p>
+	 * <p>This method must be called whenever the current context starts to own a key so that the 
+	 * contexts it contains no longer find the key in a container of it. Nothing is invalidated if 
+	 * the current context has no containers, since a lookup that misses ends there anyway, or if 
+	 * no lookup of the key has ever been cached.</p>
+	 * @param key The key the current context starts to own
+	 * @since Descripter 1.0
+	 */
+	protected final void shadow(Object key) {
+		if (with != null && key instanceof Key && ((Key)key).cached) {
+			Key.VERSION.incrementAndGet((Key)key);
+		}
 	}
 
 	/**
@@ -104,7 +163,7 @@ public class Context<S, T, W extends Context<S, T, ?>>
 	 * @since Descripter 1.0
 	 */
 	public boolean owns(S key) {
-		return map.containsKey(key) && map.get(key) != null;
+		return map != null && map.get(key) != null;
 	}
 
 	/**
@@ -114,7 +173,7 @@ public class Context<S, T, W extends Context<S, T, ?>>
 	 * @since Descripter 1.0
 	 */
 	public boolean has(S key) {
-		return map.containsKey(key) || with != null && with.has(key);
+		return map != null && map.containsKey(key) || with != null && lookup(key).has(key);
 	}
 
 	/**
@@ -123,7 +182,7 @@ public class Context<S, T, W extends Context<S, T, ?>>
 	 * @since Descripter 1.0
 	 */
 	public Set<S> keys() {
-		Set<S> keys = new HashSet<S>(map.keySet());
+		Set<S> keys = map != null ? new HashSet<S>(map.keySet()) : new HashSet<S>();
 		if (with != null) {
 			keys.addAll(with.keys());
 		}
@@ -137,8 +196,8 @@ public class Context<S, T, W extends Context<S, T, ?>>
 	 * @since Descripter 1.0
 	 */
 	public T get(S key) {
-		if (!map.containsKey(key) && with != null) {
-			return with.get(key);
+		if (map == null || !map.containsKey(key)) {
+			return with != null ? lookup(key).get(key) : null;
 		}
 		return map.get(key);
 	}
@@ -151,7 +210,7 @@ public class Context<S, T, W extends Context<S, T, ?>>
 	 * @since Descripter 1.0
 	 */
 	public void update(S key, T val) {
-		if (map.containsKey(key)) {
+		if (map != null && map.containsKey(key)) {
 			put(key, val);
 		} else if (with != null) {
 			with.update(key, val);
@@ -182,6 +241,13 @@ public class Context<S, T, W extends Context<S, T, ?>>
 		if (readOnly) {
 			throw new RuntimeException();
 		}
+		if (map == null) {
+			map = new HashMap<S, T>();
+		}
+		int size = map.size();
 		map.put(key, val);
+		if (map.size() != size) {
+			shadow(key);
+		}
 	}
 }
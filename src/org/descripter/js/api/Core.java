@@ -19,9 +19,16 @@
 
 package org.descripter.js.api;
 
+import java.io.StringReader;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.descripter.js.*;
 import org.descripter.js.api.core.*;
 import org.descripter.js.api.global.*;
+import org.descripter.js.parse.ECMAProgram;
+import org.descripter.js.parse.ParseException;
 
 /**
  * <p>Facilitates with the core features of a JavaScript engine.</p>
@@ -811,6 +818,25 @@ public class Core extends Global<Core>
 	 */
 	public final Key _execute  = globalize("execute");
 
+	/**
+	 * <p>The default maximum number of parsed programs cached by a {@link Core} context.</p>
+	 * @see #programs(int)
+	 * @since Descripter 1.0
+	 */
+	public final static int PROGRAMS = 256;
+
+	private int programs = PROGRAMS;
+	private volatile boolean stackless, debug, javac = true;
+	private long hits, misses;
+	private final Map<String, ECMAProgram> cache = new LinkedHashMap<String, ECMAProgram>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, ECMAProgram> eldest) {
+			return size() > programs;
+		}
+	};
+
 	/**
 	 * <p>Constructs a stand-alone script context with core features of a JavaScript engine.</p>
 	 * @see #Core(boolean)
@@ -1011,6 +1037,164 @@ public class Core extends Global<Core>
 		return 0;
 	}
 
+	/**
+	 * <p>Tells if this {@link Core} context creates stackless {@link Thrown} throwables.</p>
+	 * @return <tt>true</tt> if throwables do not record Java stack traces; <tt>false</tt>, otherwise.
+	 * @see Script#thrown(Object)
+	 * @since Descripter 1.0
+	 */
+	public final boolean stackless() {
+		return stackless;
+	}
+
+	/**
+	 * <p>Sets this {@link Core} context to create stackless {@link Thrown} throwables or not.</p>
+	 * <p>Stackless throwables neither fill in a Java stack trace nor record suppressed exceptions, 
+	 * which makes throwing much cheaper in deep call stacks.</p>
+	 * @param stackless <tt>true</tt> to create stackless throwables; <tt>false</tt>, otherwise.
+	 * @see Script#thrown(Object)
+	 * @since Descripter 1.0
+	 */
+	public final void stackless(boolean stackless) {
+		this.stackless = stackless;
+	}
+
+	/**
+	 * <p>Tells if this {@link Core} context is in debug mode.</p>
+	 * @return <tt>true</tt> if in debug mode; <tt>false</tt>, otherwise.
+	 * @see Thrown#stack()
+	 * @since Descripter 1.0
+	 */
+	public final boolean debug() {
+		return debug;
+	}
+
+	/**
+	 * <p>Sets this {@link Core} context to debug mode or not.</p>
+	 * <p>In debug mode, invocations remember their calling contexts, so that {@link Thrown} 
+	 * throwables record the JavaScript call stack.</p>
+	 * @param debug <tt>true</tt> for debug mode; <tt>false</tt>, otherwise.
+	 * @see Thrown#stack()
+	 * @since Descripter 1.0
+	 */
+	public final void debug(boolean debug) {
+		this.debug = debug;
+	}
+
+	/**
+	 * <p>Tells if this {@link Core} context compiles scripts with the Java compiler.</p>
+	 * @return <tt>true</tt> if scripts are descripted and compiled with <tt>javac</tt>; <tt>false</tt>, 
+	 * if they are compiled into {@link Program}s.
+	 * @see #compile(Script, Object...)
+	 * @since Descripter 1.0
+	 */
+	public final boolean javac() {
+		return javac;
+	}
+
+	/**
+	 * <p>Sets this {@link Core} context to compile scripts with the Java compiler or not.</p>
+	 * <p>Without <tt>javac</tt>, scripts are compiled into {@link Program} classes, which takes a few 
+	 * milliseconds instead of hundreds and does not need a JDK at runtime, but runs the scripts through 
+	 * their compiled expressions instead of descripted Java code.</p>
+	 * @param javac <tt>true</tt> to descript and compile scripts with <tt>javac</tt>; <tt>false</tt>, otherwise.
+	 * @see #compile(Script, Object...)
+	 * @see Program#define(Memory, String, ECMAProgram)
+	 * @since Descripter 1.0
+	 */
+	public final void javac(boolean javac) {
+		this.javac = javac;
+	}
+
+	/**
+	 * <p>Returns the parsed and compiled program of the specified script source.</p>
+	 * <p>Programs are cached by their source text, so that repeatedly evaluating the same 
+	 * source is parsed only once. The cache discards the least recently used programs when 
+	 * it holds more than {@link #programs()} of them.</p>
+	 * @param js JavaScript source.
+	 * @return The parsed and compiled program
+	 * @throws RuntimeException if the script source contains syntax errors.
+	 * @see Interpreter#prepare(java.io.Reader)
+	 * @since Descripter 1.0
+	 */
+	public final ECMAProgram program(String js) {
+		ECMAProgram p;
+		synchronized (cache) {
+			p = cache.get(js);
+			if (p != null) {
+				hits++;
+				return p;
+			}
+			misses++;
+		}
+		try {
+			p = new Interpreter(this).prepare(new StringReader(js));
+		} catch (ParseException e) {
+			throw new RuntimeException(e);
+		}
+		synchronized (cache) {
+			if (programs > 0) {
+				cache.put(js, p);
+			}
+		}
+		return p;
+	}
+
+	/**
+	 * <p>Returns the maximum number of parsed programs cached by this {@link Core} context.</p>
+	 * @return The maximum number of cached programs
+	 * @see #program(String)
+	 * @since Descripter 1.0
+	 */
+	public final int programs() {
+		synchronized (cache) {
+			return programs;
+		}
+	}
+
+	/**
+	 * <p>Sets the maximum number of parsed programs cached by this {@link Core} context.</p>
+	 * <p>The least recently used programs are discarded if the cache holds more than the new limit. 
+	 * A limit of <tt>0</tt> disables the cache.</p>
+	 * @param max The maximum number of cached programs
+	 * @see #program(String)
+	 * @since Descripter 1.0
+	 */
+	public final void programs(int max) {
+		synchronized (cache) {
+			programs = Math.max(max, 0);
+			Iterator<String> it = cache.keySet().iterator();
+			while (cache.size() > programs) {
+				it.next();
+				it.remove();
+			}
+		}
+	}
+
+	/**
+	 * <p>Returns the number of times a program was found in the cache of this {@link Core} context.</p>
+	 * @return The number of cache hits
+	 * @see #program(String)
+	 * @since Descripter 1.0
+	 */
+	public final long hits() {
+		synchronized (cache) {
+			return hits;
+		}
+	}
+
+	/**
+	 * <p>Returns the number of times a program was parsed for the cache of this {@link Core} context.</p>
+	 * @return The number of cache misses
+	 * @see #program(String)
+	 * @since Descripter 1.0
+	 */
+	public final long misses() {
+		synchronized (cache) {
+			return misses;
+		}
+	}
+
 	/**
 	 * <p>A native global service to emulate the JavaScript global function with the same name.</p>
 	 * <p>This method only evaluates the string representation of the first element of <tt>args</tt>.</p>
@@ -1073,6 +1257,8 @@ public class Core extends Global<Core>
 	 * <p>A native global service for descripting and compiling JavaScript code.</p>
 	 * <p>This method descripts and compiles the string of JavaScript source specified by the second element 
 	 * of <tt>args</tt> into a Java class with the name specified by the first element of <tt>args</tt>.</p>
+	 * <p>If this {@link Core} context does not use <tt>javac</tt>, the source is compiled into a 
+	 * {@link Program} class instead.</p>
 	 * @param script The script context that invoked this service
 	 * @param args An array of the arguments passed by the invocation
 	 * @return A {@link Runnable} {@link Class}
@@ -1083,12 +1269,15 @@ public class Core extends Global<Core>
 	public Class<?> compile(Script<?> script, Object ...args) {
 		String name = toString(args[0]);
 		Memory memo = new Memory();
-		if (memo.compile(name, descript(script, name, toString(args[1])))) {
-			try {
+		try {
+			if (!javac) {
+				return Program.define(memo, name, program(toString(args[1])));
+			}
+			if (memo.compile(name, descript(script, name, toString(args[1])))) {
 				return memo.loadClass(name);
-			} catch (ClassNotFoundException e) {
-				throw new RuntimeException(e);
 			}
+		} catch (ClassNotFoundException e) {
+			throw new RuntimeException(e);
 		}
 		return null;
 	}
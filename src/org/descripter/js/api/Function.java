@@ -133,6 +133,17 @@ public abstract class Function<W extends Script<?>> extends CObject
 	 */
 	protected abstract Functor<W> functor();
 
+	/**
+	 * <p>Tells if the body of this {@link Function} may refer to its <tt>arguments</tt> object.</p>
+	 * <p>Subclasses that know their bodies never refer to it may override this method to return 
+	 * <tt>false</tt>, so that invocations with an <tt>arguments</tt> object leave it as it is.</p>
+	 * @return <tt>true</tt> if the body may refer to the <tt>arguments</tt> object; <tt>false</tt>, otherwise.
+	 * @since Descripter 1.0
+	 */
+	protected boolean arguments() {
+		return true;
+	}
+
 	/**
 	 * <p>Allocates a new object with this {@link Function}.</p>
 	 * @param script The script context that invoked this service
@@ -142,7 +153,7 @@ public abstract class Function<W extends Script<?>> extends CObject
 	 */
 	public <S extends Script<?>> CObject alloc(S script, Object ...args) {
 		CObject o = new CObject(this);
-		call(script, o, script.array(args));
+		invoke(script, o, args);
 		return o;
 	}
 
@@ -155,11 +166,33 @@ public abstract class Function<W extends Script<?>> extends CObject
 	 * @since Descripter 1.0
 	 */
 	public final <S extends Script<?>> Object call(S script, Object base, CArray args) {
-		Functor<?> f = functor();
-		f.put(core()._this, base);
-		f.put(core()._caller, script.function);
-		f.put(core()._arguments, args.set(core()._callee, this));
-		return f.function();
+		if (arguments()) {
+			args.put(core()._callee, this);
+		}
+		return functor().frame(base, script, null, args).function();
+	}
+
+	/**
+	 * <p>Invokes this {@link Function} with a Java array of arguments.</p>
+	 * <p>The arguments are evaluated but not wrapped into an <tt>arguments</tt> object, which 
+	 * is only created if the invoked {@link Functor} asks for it.</p>
+	 * @param script The script context that invoked this service
+	 * @param base The base object used to invoke this {@link Function}
+	 * @param args An array of the arguments passed by the invocation
+	 * @return The return result of the invocation
+	 * @since Descripter 1.0
+	 */
+	public final <S extends Script<?>> Object invoke(S script, Object base, Object ...args) {
+		Object[] a = args;
+		for (int i = 0; i < args.length; i++) {
+			if (args[i] instanceof Value) {
+				if (a == args) {
+					a = args.clone();
+				}
+				a[i] = evaluate(args[i]);
+			}
+		}
+		return functor().frame(base, script, a, null).function();
 	}
 
 	/**
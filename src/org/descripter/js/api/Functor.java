@@ -19,16 +19,45 @@
 
 package org.descripter.js.api;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
 import org.descripter.js.api.core.CArray;
 
 /**
  * <p>Emulates JavaScript function definitions.</p>
+ * <p>A {@link Functor} is the activation frame of an invocation. It keeps <tt>this</tt>, 
+ * <tt>caller</tt> and <tt>arguments</tt> in fixed fields and the first few declared locals in 
+ * flat arrays, so that an invocation allocates no hash map. The <tt>arguments</tt> object is 
+ * only created when it is asked for.</p>
  * 
  * @author <a href="mailto:jianjunliu@126.com">J.J.Liu (Jianjun Liu)</a> at <a href="http://www.descripter.org" target="_blank">http://www.descripter.org</a>
  * @since Descripter 1.0
  */
 public abstract class Functor<W extends Script<?>> extends Script<W>
 {
+	/**
+	 * <p>The maximum number of locals a {@link Functor} keeps in its flat arrays.</p>
+	 * <p>More locals go to the hash map of the context.</p>
+	 * @since Descripter 1.0
+	 */
+	public final static int LOCALS = 8;
+
+	private final static int NONE = 0, THIS = 1, CALLER = 2, ARGUMENTS = 3;
+	private final static Object[] EMPTY = {};
+
+	private final Core core;
+	private Object base;
+	private Object caller;
+	private Script<?> from;
+	private Object arguments;
+	private Object[] args = EMPTY;
+	private Key[] keys;
+	private Object[] locals;
+	private int count;
+
 	/**
 	 * <p>Constructs a script context of this type.</p>
 	 * @param function The containing {@link Function} object.
@@ -36,6 +65,41 @@ public abstract class Functor<W extends Script<?>> extends Script<W>
 	 */
 	protected Functor(Function<W> function) {
 		super(function);
+		core = function.core();
+	}
+
+	/**
+	 * <p>Sets up this {@link Functor} as the activation frame of an invocation.</p>
+	 * @param base The <tt>this</tt> object of the invocation
+	 * @param script The calling script context, which is remembered only in debug mode
+	 * @param args The evaluated arguments of the invocation or <tt>null</tt> if an <tt>arguments</tt> 
+	 * object is given.
+	 * @param arguments The <tt>arguments</tt> object of the invocation or <tt>null</tt> to create 
+	 * it on demand.
+	 * @return This {@link Functor}
+	 * @since Descripter 1.0
+	 */
+	final Functor<W> frame(Object base, Script<?> script, Object[] args, CArray arguments) {
+		this.base = base;
+		this.caller = script.function;
+		this.from = core.debug() ? script : null;
+		this.args = args != null ? args : EMPTY;
+		this.arguments = arguments;
+		return this;
+	}
+
+	/**
+	 * <p>Gets an argument of the invocation of this {@link Functor}.</p>
+	 * <p>This method does not create the <tt>arguments</tt> object.</p>
+	 * @param i The index of the argument
+	 * @return The argument or <tt>null</tt> for none.
+	 * @since Descripter 1.0
+	 */
+	public final Object argument(int i) {
+		if (arguments != null) {
+			return arguments instanceof CArray ? ((CArray)arguments).get(i) : null;
+		}
+		return i < args.length ? args[i] : null;
 	}
 
 	/**
@@ -44,7 +108,34 @@ public abstract class Functor<W extends Script<?>> extends Script<W>
 	 * @since Descripter 1.0
 	 */
 	public final CArray arguments() {
-		return (CArray)get(core()._arguments);
+		if (arguments == null) {
+			CArray a = array(args);
+			a.put(core._callee, function);
+			arguments = a;
+		}
+		return (CArray)arguments;
+	}
+
+	/**
+	 * <p>Collects the activation frames of the JavaScript call stack of a script context.</p>
+	 * <p>Frames are linked to their callers only while the {@link Core} is in debug mode.</p>
+	 * @param script A script context
+	 * @return The {@link Functor} frames from the innermost to the outermost invocation
+	 * @see Core#debug(boolean)
+	 * @since Descripter 1.0
+	 */
+	static Functor<?>[] stack(Script<?> script) {
+		List<Functor<?>> frames = new ArrayList<Functor<?>>();
+		Script<?> s = script;
+		while (s != null) {
+			if (s instanceof Functor) {
+				frames.add((Functor<?>)s);
+				s = ((Functor<?>)s).from;
+			} else {
+				s = s.with;
+			}
+		}
+		return frames.toArray(new Functor<?>[frames.size()]);
 	}
 
 	/**
@@ -53,7 +144,7 @@ public abstract class Functor<W extends Script<?>> extends Script<W>
 	 * @since Descripter 1.0
 	 */
 	public final Function<?> caller() {
-		return (Function<?>)get(core()._caller);
+		return (Function<?>)caller;
 	}
 
 	/**
@@ -62,7 +153,167 @@ public abstract class Functor<W extends Script<?>> extends Script<W>
 	 * @since Descripter 1.0
 	 */
 	public final Objective<?> this_() {
-		return object(get(core()._this));
+		return object(base);
+	}
+
+	private final int special(Key key) {
+		if (key == null) {
+			return NONE;
+		}
+		int h = key.hashCode();
+		return h == core._this.hashCode() ? THIS :
+		       h == core._arguments.hashCode() ? ARGUMENTS :
+		       h == core._caller.hashCode() ? CALLER : NONE;
+	}
+
+	private final int local(Key key) {
+		if (key != null) {
+			int h = key.hashCode();
+			for (int i = 0; i < count; i++) {
+				if (keys[i].hashCode() == h) {
+					return i;
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * <p>Finds the most inner context that owns the specified key.</p>
+	 * @param key A key to lookup
+	 * @return The most inner context that owns the specified key or <tt>null</tt> if no such containers.
+	 * @since Descripter 1.0
+	 */
+	@Override
+	public Context<Key, Object, ?> in(Key key) {
+		return special(key) != NONE || local(key) >= 0 ? this : super.in(key);
+	}
+
+	/**
+	 * <p>Tells if the current context owns the specified key.</p>
+	 * @param key A key to test
+	 * @return <tt>true</tt> if the current context owns the <tt>key</tt>; <tt>false</tt>, otherwise.
+	 * @since Descripter 1.0
+	 */
+	@Override
+	public boolean owns(Key key) {
+		int i = local(key);
+		if (i >= 0) {
+			return locals[i] != null;
+		}
+		return special(key) != NONE ? get(key) != null : super.owns(key);
+	}
+
+	/**
+	 * <p>Tells if the specified key is visible in the current context.</p>
+	 * @param key A key to test
+	 * @return <tt>true</tt> if the <tt>key</tt> is visible in the current context; <tt>false</tt>, otherwise.
+	 * @since Descripter 1.0
+	 */
+	@Override
+	public boolean has(Key key) {
+		return special(key) != NONE || local(key) >= 0 || super.has(key);
+	}
+
+	/**
+	 * <p>Returns the {@link Set} of keys that are visible to the current context.</p>
+	 * @return The {@link Set} of keys that are visible to the current context.
+	 * @since Descripter 1.0
+	 */
+	@Override
+	public Set<Key> keys() {
+		Set<Key> keys = super.keys();
+		keys.add(core._this);
+		keys.add(core._caller);
+		keys.add(core._arguments);
+		for (int i = 0; i < count; i++) {
+			keys.add(this.keys[i]);
+		}
+		return keys;
+	}
+
+	/**
+	 * <p>Returns the value associated with the specified key.</p>
+	 * @param key A key to lookup
+	 * @return The value associated with the specified key or <tt>null</tt> for none.
+	 * @since Descripter 1.0
+	 */
+	@Override
+	public Object get(Key key) {
+		int i = local(key);
+		if (i >= 0) {
+			return locals[i];
+		}
+		switch (special(key)) {
+			case THIS:
+				return base;
+			case CALLER:
+				return caller;
+			case ARGUMENTS:
+				return arguments != null ? arguments : arguments();
+			default:
+				return super.get(key);
+		}
+	}
+
+	/**
+	 * <p>Updates the value associated with the specified key if it is visible.</p>
+	 * <p>Note that this method does nothing if the key is not visible.</p>
+	 * @param key A key to update
+	 * @throws RuntimeException if the current context is read-only.
+	 * @since Descripter 1.0
+	 */
+	@Override
+	public void update(Key key, Object val) {
+		if (special(key) != NONE || local(key) >= 0) {
+			put(key, val);
+		} else {
+			super.update(key, val);
+		}
+	}
+
+	/**
+	 * <p>Sets the value associated with the specified key.</p>
+	 * <p>The first {@link #LOCALS} keys go to the flat arrays of this {@link Functor}.</p>
+	 * @param key A {@link Key} to set the value
+	 * @param val The value to set
+	 * @throws RuntimeException if the current context is read-only.
+	 * @since Descripter 1.0
+	 */
+	@Override
+	public void put(Key key, Object val) {
+		if (readOnly()) {
+			throw new RuntimeException();
+		}
+		val = evaluate(val);
+		switch (special(key)) {
+			case THIS:
+				base = val;
+				return;
+			case CALLER:
+				caller = val;
+				return;
+			case ARGUMENTS:
+				arguments = val;
+				return;
+		}
+		int i = local(key);
+		if (i >= 0) {
+			locals[i] = val;
+		} else if (key != null && count < LOCALS) {
+			if (keys == null) {
+				keys = new Key[4];
+				locals = new Object[4];
+			} else if (count == keys.length) {
+				keys = Arrays.copyOf(keys, count << 1);
+				locals = Arrays.copyOf(locals, count << 1);
+			}
+			keys[count] = key;
+			locals[count++] = val;
+			shadow(key);
+		} else {
+			super.put(key, val);
+		}
 	}
 
 	/**
@@ -23,6 +23,9 @@ import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
 import java.util.Map;
 import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * <p>Emulates the object properties of JavaScript.</p>
@@ -35,9 +38,34 @@ import java.util.WeakHashMap;
  */
 public final class Key implements Value
 {
-	private static int next = -1;
-	private final static Map<String, Key> map = new WeakHashMap<String, Key>();
-	private final static Map<Key, Key> set = new WeakHashMap<Key, Key>();
+	private final static AtomicInteger next = new AtomicInteger(-1);
+	private final static Stripe[] names  = stripes();
+	private final static Stripe[] hashes = stripes();
+
+	private final static class Stripe extends ReentrantLock
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final Map<Object, Key> map = new WeakHashMap<Object, Key>();
+	}
+
+	private final static Stripe[] stripes() {
+		int n = 1;
+		while (n < Runtime.getRuntime().availableProcessors() * 4) {
+			n <<= 1;
+		}
+		n = Math.max(n, 16);
+		Stripe[] stripes = new Stripe[n];
+		for (int i = 0; i < n; i++) {
+			stripes[i] = new Stripe();
+		}
+		return stripes;
+	}
+
+	private final static Stripe stripe(Stripe[] stripes, int h) {
+		h ^= (h >>> 16);
+		return stripes[h & (stripes.length - 1)];
+	}
 
 	/**
 	 * <p>Finds or creates a {@link Key} associated with the specified string name.</p>
@@ -47,21 +75,33 @@ public final class Key implements Value
 	 * @return The found or created {@link Key}
 	 * @since Descripter 1.0
 	 */
-	public static synchronized final Key get(Context<?, ?, ?> cntx, String name) {
-		Key k = map.get(name);
-		if (k == null) {
-			try {
-				int i = Integer.decode(name);
-				if (i >= 0) {
-					return new Key(null, name, i);
+	public static final Key get(Context<?, ?, ?> cntx, String name) {
+		Stripe s = stripe(names, name.hashCode());
+		s.lock();
+		try {
+			Key k = s.map.get(name);
+			if (k == null) {
+				try {
+					int i = Integer.decode(name);
+					if (i >= 0) {
+						return new Key(null, name, i);
+					}
+				} catch (NumberFormatException nfe) {
+				}
+				k = new Key(cntx, name, next.getAndDecrement());
+				s.map.put(name, k);
+				Stripe h = stripe(hashes, k.hash);
+				h.lock();
+				try {
+					h.map.put(k, k);
+				} finally {
+					h.unlock();
 				}
-			} catch (NumberFormatException nfe) {
 			}
-			k = new Key(cntx, name, next--);
-			map.put(name, k);
-			set.put(k, k);
+			return k;
+		} finally {
+			s.unlock();
 		}
-		return k;
 	}
 
 	/**
@@ -72,8 +112,14 @@ public final class Key implements Value
 	 * <tt>false</tt>, otherwise.
 	 * @since Descripter 1.0
 	 */
-	public static synchronized final boolean has(String name) {
-		return map.containsKey(name);
+	public static final boolean has(String name) {
+		Stripe s = stripe(names, name.hashCode());
+		s.lock();
+		try {
+			return s.map.containsKey(name);
+		} finally {
+			s.unlock();
+		}
 	}
 
 	/**
@@ -83,13 +129,24 @@ public final class Key implements Value
 	 * @return The found {@link Key} or <tt>null</tt> for none.
 	 * @since Descripter 1.0
 	 */
-	public static synchronized final Key get(int hash) {
-		return set.get(new Key(hash));
+	public static final Key get(int hash) {
+		Stripe s = stripe(hashes, hash);
+		s.lock();
+		try {
+			return s.map.get(new Key(hash));
+		} finally {
+			s.unlock();
+		}
 	}
 
 	private final Reference<Context<?, ?, ?>> cntx;
 	private final Reference<String> name;
 	private final int hash;
+	volatile int version;
+	volatile boolean cached;
+
+	final static AtomicIntegerFieldUpdater<Key> VERSION =
+		AtomicIntegerFieldUpdater.newUpdater(Key.class, "version");
 
 	private Key(int hash) {
 		this(null, null, hash);
@@ -20,6 +20,10 @@
 package org.descripter.js.api;
 
 import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.descripter.js.api.core.CObject;
 import org.descripter.js.api.core.CString;
@@ -32,6 +36,8 @@ import org.descripter.js.api.core.CString;
  */
 public abstract class Objective<W extends Objective<?>> extends Context<Key, Object, W>
 {
+	private Map<Object, Var> vars;
+
 	/**
 	 * <p>Constructs an {@link Objective} {@link Context} of this type.</p>
 	 * @param with The containing {@link Objective} {@link Context}.
@@ -39,6 +45,9 @@ public abstract class Objective<W extends Objective<?>> extends Context<Key, Obj
 	 */
 	protected Objective(W with) {
 		super(with);
+		if (this instanceof Core) {
+			vars = new ConcurrentHashMap<Object, Var>();
+		}
 	}
 
 	/**
@@ -97,6 +106,20 @@ public abstract class Objective<W extends Objective<?>> extends Context<Key, Obj
 		return this;
 	}
 
+	/**
+	 * <p>Sets the value associated with the {@link Key} of the specified {@link Site} and returns 
+	 * the current {@link Objective} {@link Context}.</p>
+	 * @param s A {@link Site} caching the {@link Key} to set the value
+	 * @param o The value to set
+	 * @return The current {@link Objective} {@link Context}
+	 * @throws RuntimeException if the current context is read-only.
+	 * @since Descripter 1.0
+	 */
+	public Objective<W> set(Site s, Object o) {
+		s.put(this, o);
+		return this;
+	}
+
 	/**
 	 * <p>Sets the value associated with the specified index and returns the current 
 	 * {@link Objective} {@link Context}.</p>
@@ -159,17 +182,56 @@ public abstract class Objective<W extends Objective<?>> extends Context<Key, Obj
 	 * @since Descripter 1.0
 	 */
 	public final Var var(Integer i) {
-		return new Var(this, key(i.toString()));
+		return var(key(i.toString()));
+	}
+
+	private final boolean reuses(Object k) {
+		return !(this instanceof CObject) && !readOnly() && (!(k instanceof Key) || k.hashCode() < 0);
+	}
+
+	private final Var var(Object k, Var v) {
+		if (vars instanceof ConcurrentMap) {
+			Var o = ((ConcurrentMap<Object, Var>)vars).putIfAbsent(k, v);
+			return o != null ? o : v;
+		}
+		if (vars == null) {
+			vars = new HashMap<Object, Var>();
+		}
+		vars.put(k, v);
+		return v;
 	}
 
 	/**
 	 * <p>Returns a {@link Var} specified by a given {@link Key}.</p>
+	 * <p>A scope context or a {@link Var} hands out the same {@link Var} for the same named 
+	 * {@link Key} so that reading an identifier or a member of it allocates nothing but once. 
+	 * Objects and index keys get a new {@link Var} each time. A {@link Core}, which is shared by 
+	 * the scripts it runs, keeps its {@link Var}s in a concurrent map; other scopes belong to the 
+	 * thread running them.</p>
 	 * @param k The {@link Key} of the {@link Var} to get
 	 * @return The {@link Var} specified by the {@link Key}
 	 * @since Descripter 1.0
 	 */
 	public final Var var(Key k) {
-		return new Var(this, k);
+		if (!reuses(k)) {
+			return new Var(this, k);
+		}
+		Var v = vars != null ? vars.get(k) : null;
+		return v != null ? v : var(k, new Var(this, k));
+	}
+
+	/**
+	 * <p>Returns a {@link Var} accessed through a given {@link Site}.</p>
+	 * @param s The {@link Site} of the {@link Var} to get
+	 * @return The {@link Var} accessed through the {@link Site}
+	 * @since Descripter 1.0
+	 */
+	public final Var var(Site s) {
+		if (!reuses(s)) {
+			return new Var(this, s);
+		}
+		Var v = vars != null ? vars.get(s) : null;
+		return v != null ? v : var(s, new Var(this, s));
 	}
 
 	/**
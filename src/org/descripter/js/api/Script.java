@@ -112,7 +112,7 @@ public abstract class Script<W extends Script<?>> extends Objective<W> implement
 		}
 		o = evaluate(o);
 		if (o instanceof Function<?>) {
-			return ((Function<?>)o).call(this, function.in, array(args));
+			return ((Function<?>)o).invoke(this, function.in, args);
 		} else if (o instanceof Method &&
 				Core.class.isAssignableFrom(((Method)o).getDeclaringClass())) {
 			try {
@@ -330,6 +330,17 @@ public abstract class Script<W extends Script<?>> extends Objective<W> implement
 		return o instanceof Objective<?> ? (Objective<?>)o : alloc(core()._Object(), o);
 	}
 
+	/**
+	 * <p>Creates a {@link Thrown} throwable in the current script context.</p>
+	 * @param o The object value to throw
+	 * @return The newly created {@link Thrown} throwable
+	 * @see Thrown#Thrown(Script, Object)
+	 * @since Descripter 1.0
+	 */
+	public final Thrown thrown(Object o) {
+		return new Thrown(this, o);
+	}
+
 	/**
 	 * <p>Creates a {@link CRegExp} object.</p>
 	 * @param re A regular expression string
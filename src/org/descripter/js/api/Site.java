@@ -0,0 +1,189 @@
+
+/*
+ *  Descripter 1.0 - Java Script Engines
+ *  Copyright (C) 2010-2015  Jianjun Liu (J.J.Liu)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.descripter.js.api;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+
+import org.descripter.js.api.core.CArray;
+import org.descripter.js.api.core.CObject;
+import org.descripter.js.api.core.Shape;
+
+/**
+ * <p>Emulates a property access site of descripted JavaScript with an inline cache.</p>
+ * <p>A {@link Site} remembers the {@link Shape}s of the objects it has accessed along with the
+ * slots of its property, so that a repeated access to an object of a known {@link Shape}
+ * skips the key lookup and the walk along the prototype chain.</p>
+ * <p>Since sites are shared by every execution of descripted code, a prototype that holds a property 
+ * is only weakly referenced, so that a site never keeps the objects of an execution alive.</p>
+ *
+ * @author <a href="mailto:jianjunliu@126.com">J.J.Liu (Jianjun Liu)</a> at <a href="http://www.descripter.org" target="_blank">http://www.descripter.org</a>
+ * @since Descripter 1.0
+ */
+public final class Site
+{
+	/**
+	 * <p>The maximum number of {@link Shape}s cached by a {@link Site}.</p>
+	 * <p>A site that meets more shapes than this is megamorphic and replaces its oldest entries.</p>
+	 * @since Descripter 1.0
+	 */
+	public final static int ENTRIES = 4;
+
+	private final static Entry[] NONE = new Entry[0];
+
+	private final static class Entry
+	{
+		final Shape shape;
+		final WeakReference<CObject> holder;
+		final Shape holds;
+		final Shape next;
+		final int slot;
+
+		Entry(Shape shape, CObject holder, Shape holds, Shape next, int slot) {
+			this.shape  = shape;
+			this.holder = holder != null ? new WeakReference<CObject>(holder) : null;
+			this.holds  = holds;
+			this.next   = next;
+			this.slot   = slot;
+		}
+	}
+
+	/**
+	 * <p>The {@link Key} of the property accessed at this {@link Site}.</p>
+	 * @since Descripter 1.0
+	 */
+	public final Key key;
+
+	private volatile Entry[] gets = NONE;
+	private volatile Entry[] puts = NONE;
+
+	/**
+	 * <p>Constructs a property access site of this type.</p>
+	 * @param key The {@link Key} of the property accessed at the site.
+	 * @since Descripter 1.0
+	 */
+	public Site(Key key) {
+		this.key = key;
+	}
+
+	/**
+	 * <p>Constructs a property access site of this type.</p>
+	 * @param name The name of the property accessed at the site.
+	 * @since Descripter 1.0
+	 */
+	public Site(String name) {
+		this(Key.get(null, name));
+	}
+
+	private final boolean cached(Object o) {
+		return o instanceof CObject && !(o instanceof CArray) && key.hashCode() < 0;
+	}
+
+	private static Entry[] add(Entry[] entries, Entry e) {
+		Entry[] a;
+		for (int i = 0; i < entries.length; i++) {
+			if (entries[i].shape == e.shape) {
+				a = entries.clone();
+				a[i] = e;
+				return a;
+			}
+		}
+		if (entries.length < ENTRIES) {
+			a = Arrays.copyOf(entries, entries.length + 1);
+		} else {
+			a = new Entry[ENTRIES];
+			System.arraycopy(entries, 1, a, 0, ENTRIES - 1);
+		}
+		a[a.length - 1] = e;
+		return a;
+	}
+
+	/**
+	 * <p>Returns the value of the property of this {@link Site} in the specified object.</p>
+	 * @param base The object to get the property of.
+	 * @return The value of the property or <tt>null</tt> for none.
+	 * @since Descripter 1.0
+	 */
+	public final Object get(Objective<?> base) {
+		if (!cached(base)) {
+			return base.get(key);
+		}
+		CObject c = (CObject)base;
+		Shape s = c.shape();
+		Entry[] entries = gets;
+		for (int i = 0; i < entries.length; i++) {
+			Entry e = entries[i];
+			if (e.shape == s && s != null) {
+				if (e.holder == null) {
+					return c.slot(e.slot);
+				}
+				CObject h = e.holder.get();
+				if (h != null && c.with == h && h.shape() == e.holds) {
+					return h.slot(e.slot);
+				}
+			}
+		}
+		Object v = c.get(key);
+		if (s != null) {
+			int i = s.slot(key);
+			if (i >= 0) {
+				gets = add(entries, new Entry(s, null, null, s, i));
+			} else if (cached(c.with) && c.with.shape() != null) {
+				i = c.with.shape().slot(key);
+				if (i >= 0) {
+					gets = add(entries, new Entry(s, c.with, c.with.shape(), s, i));
+				}
+			}
+		}
+		return v;
+	}
+
+	/**
+	 * <p>Sets the value of the property of this {@link Site} in the specified object.</p>
+	 * @param base The object to set the property of.
+	 * @param val The value to set
+	 * @throws RuntimeException if the object is read-only.
+	 * @since Descripter 1.0
+	 */
+	public final void put(Objective<?> base, Object val) {
+		if (!cached(base)) {
+			base.set(key, val);
+			return;
+		}
+		CObject c = (CObject)base;
+		Shape s = c.shape();
+		Entry[] entries = puts;
+		for (int i = 0; i < entries.length; i++) {
+			Entry e = entries[i];
+			if (e.shape == s && s != null) {
+				c.slot(e.next, e.slot, val);
+				return;
+			}
+		}
+		c.put(key, val);
+		Shape n = c.shape();
+		if (s != null && n != null) {
+			int i = n.slot(key);
+			if (i >= 0 && (n == s || i == s.size())) {
+				puts = add(entries, new Entry(s, null, null, n, i));
+			}
+		}
+	}
+}
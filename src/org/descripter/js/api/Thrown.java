@@ -30,14 +30,43 @@ public final class Thrown extends RuntimeException implements Value
 	private static final long serialVersionUID = 1762152044381702373L;
 
 	private final Object o;
+	private final Functor<?>[] stack;
 
 	/**
 	 * <p>Constructs a throwable.</p>
+	 * <p>The throwable always fills in its Java stack trace.</p>
 	 * @param o The object value to wrap
 	 * @since Descripter 1.0
 	 */
 	public Thrown(Object o) {
 		this.o = o;
+		this.stack = null;
+	}
+
+	/**
+	 * <p>Constructs a throwable in a script context.</p>
+	 * <p>The throwable fills in its Java stack trace unless the {@link Core} of the script context 
+	 * is stackless, and records the JavaScript call stack only if the {@link Core} is in debug mode.</p>
+	 * @param script The script context that throws
+	 * @param o The object value to wrap
+	 * @see Core#stackless(boolean)
+	 * @see Core#debug(boolean)
+	 * @since Descripter 1.0
+	 */
+	public Thrown(Script<?> script, Object o) {
+		super(null, null, !script.core().stackless(), !script.core().stackless());
+		this.o = o;
+		this.stack = script.core().debug() ? Functor.stack(script) : null;
+	}
+
+	/**
+	 * <p>Returns the JavaScript call stack recorded when this throwable was constructed.</p>
+	 * @return The {@link Functor} frames from the innermost to the outermost invocation or 
+	 * <tt>null</tt> if no stack was recorded.
+	 * @since Descripter 1.0
+	 */
+	public final Functor<?>[] stack() {
+		return stack;
 	}
 
 	/**
@@ -19,17 +19,29 @@
 
 package org.descripter.js.api;
 
+import java.util.HashMap;
 import java.util.Set;
 
 /**
  * <p>Emulates JavaScript variables.</p>
+ * <p>A {@link Var} is a plain reference to a property of a containing {@link Objective} context 
+ * or of the value of another {@link Var}. It is not a {@link Context} itself, but it forwards 
+ * the {@link Objective} methods that descripted code calls on it to the value it evaluates to.</p>
  * 
  * @author <a href="mailto:jianjunliu@126.com">J.J.Liu (Jianjun Liu)</a> at <a href="http://www.descripter.org" target="_blank">http://www.descripter.org</a>
  * @since Descripter 1.0
  */
-public final class Var extends Objective<Objective<?>> implements Value
+public final class Var implements Value
 {
+	/**
+	 * <p>The container of the current variable, either an {@link Objective} context or 
+	 * another {@link Var}.</p>
+	 * @since Descripter 1.0
+	 */
+	public final Object with;
 	private final Key index;
+	private final Site site;
+	private HashMap<Object, Var> vars;
 
 	/**
 	 * <p>Constructs an {@link Objective} context of this type.</p>
@@ -38,8 +50,56 @@ public final class Var extends Objective<Objective<?>> implements Value
 	 * @since Descripter 1.0
 	 */
 	public Var(Objective<?> with, Key index) {
-		super(with);
+		this((Object)with, index, null);
+	}
+
+	/**
+	 * <p>Constructs a variable of this type based on the value of another {@link Var}.</p>
+	 * @param with The containing {@link Var}.
+	 * @param index The {@link Key} to the value of the containing {@link Var}.
+	 * @since Descripter 1.0
+	 */
+	public Var(Var with, Key index) {
+		this((Object)with, index, null);
+	}
+
+	/**
+	 * <p>Constructs an {@link Objective} context of this type accessed through a {@link Site}.</p>
+	 * @param with The containing {@link Objective} context.
+	 * @param site The {@link Site} caching the {@link Key} to the containing {@link Objective} context.
+	 * @since Descripter 1.0
+	 */
+	public Var(Objective<?> with, Site site) {
+		this((Object)with, site.key, site);
+	}
+
+	/**
+	 * <p>Constructs a variable of this type based on the value of another {@link Var} and 
+	 * accessed through a {@link Site}.</p>
+	 * @param with The containing {@link Var}.
+	 * @param site The {@link Site} caching the {@link Key} to the value of the containing {@link Var}.
+	 * @since Descripter 1.0
+	 */
+	public Var(Var with, Site site) {
+		this((Object)with, site.key, site);
+	}
+
+	private Var(Object with, Key index, Site site) {
+		this.with = with;
 		this.index = index;
+		this.site = site;
+	}
+
+	private final Objective<?> base() {
+		return (Objective<?>)(with instanceof Var ? ((Var)with).evaluate() : with);
+	}
+
+	private final Var var(Object k, Var v) {
+		if (vars == null) {
+			vars = new HashMap<Object, Var>();
+		}
+		vars.put(k, v);
+		return v;
 	}
 
 	/**
@@ -49,7 +109,8 @@ public final class Var extends Objective<Objective<?>> implements Value
 	 */
 	@Override
 	public Object evaluate() {
-		return with.get(index);
+		Objective<?> o = base();
+		return site != null ? site.get(o) : o.get(index);
 	}
 
 	/**
@@ -62,7 +123,7 @@ public final class Var extends Objective<Objective<?>> implements Value
 	 */
 	public boolean delete() {
 		if (has(index)) {
-			hide(index);
+			put(index, null);
 		}
 		return false;
 	}
@@ -74,7 +135,7 @@ public final class Var extends Objective<Objective<?>> implements Value
 	 */
 	@Override
 	public String toString() {
-		return toString(evaluate());
+		return Objective.toString(evaluate());
 	}
 
 	/**
@@ -83,7 +144,6 @@ public final class Var extends Objective<Objective<?>> implements Value
 	 * @return <tt>true</tt> if the <tt>key</tt> is visible in the current context; <tt>false</tt>, otherwise.
 	 * @since Descripter 1.0
 	 */
-	@Override
 	public final boolean has(Key k) {
 		return ((Objective<?>)evaluate()).has(k);
 	}
@@ -94,7 +154,6 @@ public final class Var extends Objective<Objective<?>> implements Value
 	 * @return <tt>true</tt> if the current context owns the <tt>key</tt>; <tt>false</tt>, otherwise.
 	 * @since Descripter 1.0
 	 */
-	@Override
 	public final boolean owns(Key k) {
 		return ((Objective<?>)evaluate()).owns(k);
 	}
@@ -104,7 +163,6 @@ public final class Var extends Objective<Objective<?>> implements Value
 	 * @return The {@link Set} of keys that are visible to the current context.
 	 * @since Descripter 1.0
 	 */
-	@Override
 	public final Set<Key> keys() {
 		return ((Objective<?>)evaluate()).keys();
 	}
@@ -115,7 +173,6 @@ public final class Var extends Objective<Objective<?>> implements Value
 	 * @return The value associated with the specified key or <tt>null</tt> for none.
 	 * @since Descripter 1.0
 	 */
-	@Override
 	public final Object get(Key k) {
 		return ((Objective<?>)evaluate()).get(k);
 	}
@@ -127,9 +184,95 @@ public final class Var extends Objective<Objective<?>> implements Value
 	 * @throws RuntimeException if the current context is read-only.
 	 * @since Descripter 1.0
 	 */
-	@Override
-	public void put(Key key, Object val) {
-		((Objective<?>)evaluate()).put(key, evaluate(val));
+	public final void put(Key key, Object val) {
+		((Objective<?>)evaluate()).put(key, Objective.evaluate(val));
+	}
+
+	/**
+	 * <p>Sets the value associated with the specified key and returns the current variable.</p>
+	 * @param k A {@link Key} to set the value
+	 * @param o The value to set
+	 * @return The current variable
+	 * @throws RuntimeException if the value of the current variable is read-only.
+	 * @since Descripter 1.0
+	 */
+	public final Var set(Key k, Object o) {
+		put(k, o);
+		return this;
+	}
+
+	/**
+	 * <p>Sets the value associated with the {@link Key} of the specified {@link Site} and returns 
+	 * the current variable.</p>
+	 * @param s A {@link Site} caching the {@link Key} to set the value
+	 * @param o The value to set
+	 * @return The current variable
+	 * @throws RuntimeException if the value of the current variable is read-only.
+	 * @since Descripter 1.0
+	 */
+	public final Var set(Site s, Object o) {
+		s.put((Objective<?>)evaluate(), o);
+		return this;
+	}
+
+	/**
+	 * <p>Sets the value associated with the specified index and returns the current variable.</p>
+	 * @param i An index to set the value
+	 * @param o The value to set
+	 * @return The current variable
+	 * @throws RuntimeException if the value of the current variable is read-only.
+	 * @since Descripter 1.0
+	 */
+	public final Var set(Integer i, Object o) {
+		((Objective<?>)evaluate()).set(i, o);
+		return this;
+	}
+
+	/**
+	 * <p>Returns the value associated with the specified index.</p>
+	 * @param i An index to lookup
+	 * @return The value associated with the specified index or <tt>null</tt> for none.
+	 * @since Descripter 1.0
+	 */
+	public final Object get(Integer i) {
+		return ((Objective<?>)evaluate()).get(i);
+	}
+
+	/**
+	 * <p>Returns a {@link Var} specified by a given index.</p>
+	 * @param i The index of the {@link Var} to get
+	 * @return The {@link Var} specified by the index
+	 * @since Descripter 1.0
+	 */
+	public final Var var(Integer i) {
+		return new Var(this, Key.get(null, i.toString()));
+	}
+
+	/**
+	 * <p>Returns a {@link Var} specified by a given {@link Key}.</p>
+	 * <p>The same {@link Var} is handed out for the same named {@link Key}.</p>
+	 * @param k The {@link Key} of the {@link Var} to get
+	 * @return The {@link Var} specified by the {@link Key}
+	 * @since Descripter 1.0
+	 */
+	public final Var var(Key k) {
+		if (k.hashCode() >= 0) {
+			return new Var(this, k);
+		}
+		Var v = vars != null ? vars.get(k) : null;
+		return v != null ? v : var(k, new Var(this, k));
+	}
+
+	/**
+	 * <p>Returns a {@link Var} accessed through a given {@link Site}.</p>
+	 * <p>The same {@link Var} is handed out for the same {@link Site}.</p>
+	 * @param s The {@link Site} of the {@link Var} to get
+	 * @return The {@link Var} accessed through the {@link Site}
+	 * @since Descripter 1.0
+	 */
+	public final Var var(Site s) {
+		Var v = vars != null ? vars.get(s) : null;
+		return v != null ? v : var(s, new Var(this, s));
 	}
 
 	/**
@@ -140,7 +283,11 @@ public final class Var extends Objective<Objective<?>> implements Value
 	 * @since Descripter 1.0
 	 */
 	public final <T> T assign(T value) {
-		with.set(index, evaluate(value));
+		if (site != null) {
+			site.put(base(), Objective.evaluate(value));
+		} else {
+			base().set(index, Objective.evaluate(value));
+		}
 		return value;
 	}
 
@@ -167,7 +314,7 @@ public final class Var extends Objective<Objective<?>> implements Value
 	public final <S extends Script<?>> Object call(S script, Object ...args) {
 		Object o = evaluate();
 		if (o instanceof Function<?>) {
-			return ((Function<?>)o).call(script, with, script.array(args));
+			return ((Function<?>)o).invoke(script, with, args);
 		}
 		return script.call(o, args);
 	}
@@ -178,7 +325,7 @@ public final class Var extends Objective<Objective<?>> implements Value
 	 * @since Descripter 1.0
 	 */
 	public final boolean bool() {
-		return bool(this);
+		return Objective.bool(this);
 	}
 
 	/**
@@ -187,7 +334,7 @@ public final class Var extends Objective<Objective<?>> implements Value
 	 * @since Descripter 1.0
 	 */
 	public final double inc() {
-		return assign(add(doubleValue(this), 1));
+		return assign(Objective.add(Objective.doubleValue(this), 1));
 	}
 
 	/**
@@ -196,7 +343,7 @@ public final class Var extends Objective<Objective<?>> implements Value
 	 * @since Descripter 1.0
 	 */
 	public final double dec() {
-		return assign(sub(doubleValue(this), 1));
+		return assign(Objective.sub(Objective.doubleValue(this), 1));
 	}
 
 	/**
@@ -208,8 +355,8 @@ public final class Var extends Objective<Objective<?>> implements Value
 		return new Value() {
 			@Override
 			public Object evaluate() {
-				Number v = toNumber(Var.this);
-				assign(add(v, 1));
+				Number v = Objective.toNumber(Var.this);
+				assign(Objective.add(v, 1));
 				return v;
 			}
 		};
@@ -224,8 +371,8 @@ public final class Var extends Objective<Objective<?>> implements Value
 		return new Value() {
 			@Override
 			public Object evaluate() {
-				Number v = toNumber(Var.this);
-				assign(sub(v, 1));
+				Number v = Objective.toNumber(Var.this);
+				assign(Objective.sub(v, 1));
 				return v;
 			}
 		};
@@ -438,7 +585,7 @@ public final class Var extends Objective<Objective<?>> implements Value
 	 * @since Descripter 1.0
 	 */
 	public final double neg() {
-		return neg(this);
+		return Objective.neg(this);
 	}
 
 	/**
@@ -452,7 +599,7 @@ public final class Var extends Objective<Objective<?>> implements Value
 	 * @since Descripter 1.0
 	 */
 	public final Object add(Object o) {
-		return add(this, o);
+		return Objective.add(this, o);
 	}
 
 	/**
@@ -465,7 +612,7 @@ public final class Var extends Objective<Objective<?>> implements Value
 	 * @since Descripter 1.0
 	 */
 	public final double sub(Object o) {
-		return sub(this, o);
+		return Objective.sub(this, o);
 	}
 
 	/**
@@ -478,7 +625,7 @@ public final class Var extends Objective<Objective<?>> implements Value
 	 * @since Descripter 1.0
 	 */
 	public final double mul(Object o) {
-		return mul(this, o);
+		return Objective.mul(this, o);
 	}
 
 	/**
@@ -495,7 +642,7 @@ public final class Var extends Objective<Objective<?>> implements Value
 	 * @since Descripter 1.0
 	 */
 	public final double mod(Object o) {
-		return mod(this, o);
+		return Objective.mod(this, o);
 	}
 
 	/**
@@ -512,7 +659,7 @@ public final class Var extends Objective<Objective<?>> implements Value
 	 * @since Descripter 1.0
 	 */
 	public final double div(Object o) {
-		return div(this, o);
+		return Objective.div(this, o);
 	}
 
 	/**
@@ -532,7 +679,7 @@ public final class Var extends Objective<Objective<?>> implements Value
 	 * @since Descripter 1.0
 	 */
 	public final int not() {
-		return not(this);
+		return Objective.not(this);
 	}
 
 	/**
@@ -552,7 +699,7 @@ public final class Var extends Objective<Objective<?>> implements Value
 	 * @since Descripter 1.0
 	 */
 	public final int and(Object o) {
-		return and(this, o);
+		return Objective.and(this, o);
 	}
 
 	/**
@@ -572,7 +719,7 @@ public final class Var extends Objective<Objective<?>> implements Value
 	 * @since Descripter 1.0
 	 */
 	public final int or(Object o) {
-		return or(this, o);
+		return Objective.or(this, o);
 	}
 
 	/**
@@ -594,7 +741,7 @@ public final class Var extends Objective<Objective<?>> implements Value
 	 * @since Descripter 1.0
 	 */
 	public final int xor(Object o) {
-		return xor(this, o);
+		return Objective.xor(this, o);
 	}
 
 	/**
@@ -619,7 +766,7 @@ public final class Var extends Objective<Objective<?>> implements Value
 	 * @since Descripter 1.0
 	 */
 	public final int shl(Object o) {
-		return shl(this, o);
+		return Objective.shl(this, o);
 	}
 
 	/**
@@ -648,7 +795,7 @@ public final class Var extends Objective<Objective<?>> implements Value
 	 * @since Descripter 1.0
 	 */
 	public final int shr(Object o) {
-		return shr(this, o);
+		return Objective.shr(this, o);
 	}
 
 	/**
@@ -676,7 +823,7 @@ public final class Var extends Objective<Objective<?>> implements Value
 	 * @since Descripter 1.0
 	 */
 	public final int shru(Object o) {
-		return shru(this, o);
+		return Objective.shru(this, o);
 	}
 
 	/**
@@ -707,7 +854,7 @@ public final class Var extends Objective<Objective<?>> implements Value
 	 * @since Descripter 1.0
 	 */
 	public final boolean band(Object o) {
-		return band(this, o);
+		return Objective.band(this, o);
 	}
 
 	/**
@@ -734,7 +881,7 @@ public final class Var extends Objective<Objective<?>> implements Value
 	 * @since Descripter 1.0
 	 */
 	public final boolean bor(Object o) {
-		return bor(this, o);
+		return Objective.bor(this, o);
 	}
 
 	/**
@@ -756,7 +903,7 @@ public final class Var extends Objective<Objective<?>> implements Value
 	 * @since Descripter 1.0
 	 */
 	public final boolean bnot() {
-		return bnot(this);
+		return Objective.bnot(this);
 	}
 
 	/**
@@ -806,7 +953,7 @@ public final class Var extends Objective<Objective<?>> implements Value
 	 * @since Descripter 1.0
 	 */
 	public final boolean lt(Object o) {
-		return lt(this, o);
+		return Objective.lt(this, o);
 	}
 
 	/**
@@ -856,7 +1003,7 @@ public final class Var extends Objective<Objective<?>> implements Value
 	 * @since Descripter 1.0
 	 */
 	public final boolean lte(Object o) {
-		return lte(this, o);
+		return Objective.lte(this, o);
 	}
 
 	/**
@@ -906,7 +1053,7 @@ public final class Var extends Objective<Objective<?>> implements Value
 	 * @since Descripter 1.0
 	 */
 	public final boolean gt(Object o) {
-		return gt(this, o);
+		return Objective.gt(this, o);
 	}
 
 	/**
@@ -956,7 +1103,7 @@ public final class Var extends Objective<Objective<?>> implements Value
 	 * @since Descripter 1.0
 	 */
 	public final boolean gte(Object o) {
-		return gte(this, o);
+		return Objective.gte(this, o);
 	}
 
 	/**
@@ -1021,7 +1168,7 @@ public final class Var extends Objective<Objective<?>> implements Value
 	 * @since Descripter 1.0
 	 */
 	public final boolean eq(Object o) {
-		return eq(this, o);
+		return Objective.eq(this, o);
 	}
 
 	/**
@@ -1080,6 +1227,6 @@ public final class Var extends Objective<Objective<?>> implements Value
 	 * @since Descripter 1.0
 	 */
 	public final boolean eqs(Object o) {
-		return eqs(this, o);
+		return Objective.eqs(this, o);
 	}
 }
@@ -20,10 +20,16 @@
 package org.descripter.js.api.core;
 
 import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.descripter.js.api.Context;
 import org.descripter.js.api.Function;
 import org.descripter.js.api.Key;
 
@@ -35,6 +41,15 @@ import org.descripter.js.api.Key;
  */
 public class CArray extends CObject
 {
+	private final static Object[] EMPTY = new Object[0];
+
+	private Object[] elements = EMPTY;
+	private int[] ints;
+	private double[] doubles;
+	private int size;
+	private Map<Integer, Object> sparse;
+	private int length;
+
 	/**
 	 * <p>Constructs a {@link CObject} context of this type.</p>
 	 * @param constructor The constructor {@link Function} object.
@@ -62,13 +77,31 @@ public class CArray extends CObject
 	 * @since Descripter 1.0
 	 */
 	public CArray(Function<?> constructor, Object ...array) {
-		this(constructor, array.length);
+		this(constructor);
+		Object[] a = new Object[array.length];
+		boolean ints = true, doubles = true;
 		for (int i = 0; i < array.length; i++) {
-			Object o = array[i];
-			if (o != null) {
-				super.put(i, o);
+			Object o = evaluate(array[i]);
+			ints &= o instanceof Integer;
+			doubles &= o instanceof Double;
+			a[i] = o;
+		}
+		if (a.length > 0 && ints) {
+			this.ints = new int[a.length];
+			for (int i = 0; i < a.length; i++) {
+				this.ints[i] = (Integer)a[i];
+			}
+			size = a.length;
+		} else if (a.length > 0 && doubles) {
+			this.doubles = new double[a.length];
+			for (int i = 0; i < a.length; i++) {
+				this.doubles[i] = (Double)a[i];
 			}
+			size = a.length;
+		} else {
+			elements = a;
 		}
+		length = array.length;
 	}
 
 	/**
@@ -83,7 +116,7 @@ public class CArray extends CObject
 			if (i > 0) {
 				sb.append(',');
 			}
-			Object o = get(i);
+			Object o = element(i);
 			if (o instanceof String) {
 				sb.append('"');
 				sb.append(o);
@@ -103,7 +136,7 @@ public class CArray extends CObject
 	 * @since Descripter 1.0
 	 */
 	public final int length() {
-		return intValue(getNumber(core()._length));
+		return length;
 	}
 
 	/**
@@ -112,13 +145,424 @@ public class CArray extends CObject
 	 * @since Descripter 1.0
 	 */
 	public final void length(int length) {
+		if (readOnly()) {
+			throw new RuntimeException();
+		}
 		if (length < 0) {
 			length = 0;
 		}
-		for (int i = length, len = length(); i < len; i++) {
-			hide(i);
+		if (length < this.length) {
+			if (length < size) {
+				size = length;
+			}
+			if (length < elements.length) {
+				Arrays.fill(elements, length, Math.min(this.length, elements.length), null);
+			}
+			if (sparse != null) {
+				for (Iterator<Integer> it = sparse.keySet().iterator(); it.hasNext();) {
+					if (it.next() >= length) {
+						it.remove();
+					}
+				}
+				if (sparse.isEmpty()) {
+					sparse = null;
+				}
+			}
+		}
+		this.length = length;
+	}
+
+	private final boolean dense() {
+		return sparse == null;
+	}
+
+	private final int capacity() {
+		return ints != null ? ints.length : doubles != null ? doubles.length : elements.length;
+	}
+
+	private final boolean dense(int index) {
+		int capacity = capacity();
+		return index < capacity || index <= (capacity << 1) + 8;
+	}
+
+	private final boolean typed() {
+		return ints != null || doubles != null;
+	}
+
+	private final Object[] objects() {
+		if (ints != null) {
+			elements = new Object[Math.max(ints.length, 8)];
+			for (int i = 0; i < size; i++) {
+				elements[i] = ints[i];
+			}
+			ints = null;
+			size = 0;
+		} else if (doubles != null) {
+			elements = new Object[Math.max(doubles.length, 8)];
+			for (int i = 0; i < size; i++) {
+				elements[i] = doubles[i];
+			}
+			doubles = null;
+			size = 0;
+		}
+		return elements;
+	}
+
+	private final boolean typed(int index, Object val) {
+		if (index > size) {
+			return false;
+		}
+		if (val == null) {
+			if (index < size - 1) {
+				return false;
+			}
+			if (index == size - 1) {
+				size--;
+			}
+		} else if (ints != null && val instanceof Integer) {
+			if (index == ints.length) {
+				ints = Arrays.copyOf(ints, Math.max(8, ints.length + (ints.length >> 1)));
+			}
+			ints[index] = (Integer)val;
+		} else if (doubles != null && val instanceof Double) {
+			if (index == doubles.length) {
+				doubles = Arrays.copyOf(doubles, Math.max(8, doubles.length + (doubles.length >> 1)));
+			}
+			doubles[index] = (Double)val;
+		} else {
+			return false;
+		}
+		if (index == size && val != null) {
+			size++;
+		}
+		if (index >= length) {
+			length = index + 1;
+		}
+		return true;
+	}
+
+	private static final void copy(CArray src, int srcPos, Object[] dest, int destPos, int len) {
+		if (src.ints != null) {
+			for (int i = srcPos, j = destPos, n = Math.min(srcPos + len, src.size); i < n; i++, j++) {
+				dest[j] = src.ints[i];
+			}
+		} else if (src.doubles != null) {
+			for (int i = srcPos, j = destPos, n = Math.min(srcPos + len, src.size); i < n; i++, j++) {
+				dest[j] = src.doubles[i];
+			}
+		} else if (srcPos < src.elements.length) {
+			System.arraycopy(src.elements, srcPos, dest, destPos, Math.min(len, src.elements.length - srcPos));
+		}
+	}
+
+	/**
+	 * <p>Tells if the elements of the current array are all held as primitive numbers.</p>
+	 * @return <tt>true</tt> if the current array is backed by an <tt>int[]</tt> or a 
+	 * <tt>double[]</tt> without holes; <tt>false</tt>, otherwise.
+	 * @since Descripter 1.0
+	 */
+	final boolean numeric() {
+		return typed() && size == length;
+	}
+
+	/**
+	 * <p>Gets a primitive number element of a {@link #numeric()} array.</p>
+	 * @param index The index of the element
+	 * @return The double value of the element
+	 * @since Descripter 1.0
+	 */
+	final double number(int index) {
+		return ints != null ? ints[index] : doubles[index];
+	}
+
+	private final void capacity(int capacity) {
+		if (capacity > elements.length) {
+			elements = Arrays.copyOf(elements, Math.max(capacity, elements.length + (elements.length >> 1)));
+			if (sparse != null) {
+				for (int i = 0; i < elements.length && !sparse.isEmpty(); i++) {
+					Object o = sparse.remove(i);
+					if (o != null) {
+						elements[i] = o;
+					}
+				}
+				if (sparse.isEmpty()) {
+					sparse = null;
+				}
+			}
+		}
+	}
+
+	private final Object element(int index) {
+		if (ints != null) {
+			return index < size ? (Object)ints[index] : null;
+		} else if (doubles != null) {
+			return index < size ? (Object)doubles[index] : null;
+		} else if (index < elements.length) {
+			return elements[index];
+		}
+		return sparse != null ? sparse.get(index) : null;
+	}
+
+	private final void element(int index, Object val) {
+		if (readOnly()) {
+			throw new RuntimeException();
+		}
+		if (typed()) {
+			if (typed(index, val)) {
+				return;
+			}
+			objects();
+		} else if (index == 0 && elements == EMPTY && sparse == null) {
+			if (val instanceof Integer) {
+				ints = new int[8];
+			} else if (val instanceof Double) {
+				doubles = new double[8];
+			}
+			if (typed(index, val)) {
+				return;
+			}
+		}
+		if (dense(index)) {
+			capacity(index + 1);
+			elements[index] = val;
+		} else if (val != null) {
+			if (sparse == null) {
+				sparse = new HashMap<Integer, Object>();
+			}
+			sparse.put(index, val);
+		} else if (sparse != null) {
+			sparse.remove(index);
+			if (sparse.isEmpty()) {
+				sparse = null;
+			}
+		}
+		if (index >= length) {
+			length = index + 1;
+		}
+	}
+
+	private final Key key(int i) {
+		return key(Integer.toString(i));
+	}
+
+	/**
+	 * <p>Sets the current array to <tt>readOnly</tt>.</p>
+	 * @param readOnly <tt>true</tt> to set the current array read-only; <tt>false</tt>, otherwise.
+	 * @since Descripter 1.0
+	 */
+	@Override
+	public void readOnly(boolean readOnly) {
+		if (readOnly() ^ readOnly) {
+			super.readOnly(readOnly);
+			for (Object o : elements) {
+				if (o instanceof Context) {
+					((Context<?, ?, ?>)o).readOnly(readOnly);
+				}
+			}
+			if (sparse != null) {
+				for (Object o : sparse.values()) {
+					if (o instanceof Context) {
+						((Context<?, ?, ?>)o).readOnly(readOnly);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * <p>Returns the element at the specified index.</p>
+	 * @param i An index to lookup
+	 * @return The element at the specified index or <tt>null</tt> for none.
+	 * @since Descripter 1.0
+	 */
+	@Override
+	public final Object get(Integer i) {
+		if (i < 0) {
+			return super.get(i);
+		}
+		Object o = element(i);
+		return o != null || with == null ? o : with.get(key(i));
+	}
+
+	/**
+	 * <p>Tells if the specified index is visible from the current array.</p>
+	 * @param i An index to test
+	 * @return <tt>true</tt> if the index is visible from the current array; <tt>false</tt>, otherwise.
+	 * @since Descripter 1.0
+	 */
+	@Override
+	public final boolean has(Integer i) {
+		if (i < 0) {
+			return super.has(i);
+		}
+		return element(i) != null || with != null && with.has(key(i));
+	}
+
+	/**
+	 * <p>Hides the element at the specified index.</p>
+	 * @param i An index to remove
+	 * @throws RuntimeException if the current array is read-only.
+	 * @since Descripter 1.0
+	 */
+	@Override
+	public final void hide(Integer i) {
+		if (i < 0) {
+			super.hide(i);
+		} else if (i < length) {
+			element(i, null);
+		}
+	}
+
+	/**
+	 * <p>Sets the element at the specified index.</p>
+	 * @param i An index to set the element
+	 * @param v The value to set
+	 * @throws RuntimeException if the current array is read-only.
+	 * @since Descripter 1.0
+	 */
+	@Override
+	public final void put(Integer i, Object v) {
+		if (i < 0) {
+			super.put(i, v);
+		} else {
+			element(i, evaluate(v));
+		}
+	}
+
+	/**
+	 * <p>Sets the element at the specified index and returns the current array.</p>
+	 * @param i An index to set the element
+	 * @param o The value to set
+	 * @return The current array
+	 * @throws RuntimeException if the current array is read-only.
+	 * @since Descripter 1.0
+	 */
+	@Override
+	public final CArray set(Integer i, Object o) {
+		put(i, o);
+		return this;
+	}
+
+	/**
+	 * <p>Finds the most inner context that owns the specified key.</p>
+	 * @param key A key to lookup
+	 * @return The most inner context that owns the specified key or <tt>null</tt> if no such containers.
+	 * @since Descripter 1.0
+	 */
+	@Override
+	public final Context<Key, Object, ?> in(Key key) {
+		int i = key.hashCode();
+		if (i < 0 || key.equals(core()._length)) {
+			return super.in(key);
+		}
+		return element(i) != null || with == null ? this : with.in(key);
+	}
+
+	/**
+	 * <p>Tells if the current array owns the specified key.</p>
+	 * @param key A key to test
+	 * @return <tt>true</tt> if the current array owns the <tt>key</tt>; <tt>false</tt>, otherwise.
+	 * @since Descripter 1.0
+	 */
+	@Override
+	public final boolean owns(Key key) {
+		int i = key.hashCode();
+		if (i < 0) {
+			return key.equals(core()._length) || super.owns(key);
+		}
+		return element(i) != null;
+	}
+
+	/**
+	 * <p>Tells if the specified key is visible in the current array.</p>
+	 * @param key A key to test
+	 * @return <tt>true</tt> if the <tt>key</tt> is visible in the current array; <tt>false</tt>, otherwise.
+	 * @since Descripter 1.0
+	 */
+	@Override
+	public final boolean has(Key key) {
+		int i = key.hashCode();
+		if (i < 0) {
+			return key.equals(core()._length) || super.has(key);
+		}
+		return element(i) != null || with != null && with.has(key);
+	}
+
+	/**
+	 * <p>Returns the {@link Set} of keys that are visible to the current array.</p>
+	 * @return The {@link Set} of keys that are visible to the current array.
+	 * @since Descripter 1.0
+	 */
+	@Override
+	public final Set<Key> keys() {
+		Set<Key> keys = super.keys();
+		keys.add(core()._length);
+		for (int i = 0; i < size; i++) {
+			keys.add(key(i));
+		}
+		for (int i = 0, n = Math.min(length, elements.length); i < n; i++) {
+			if (elements[i] != null) {
+				keys.add(key(i));
+			}
+		}
+		if (sparse != null) {
+			for (Integer i : sparse.keySet()) {
+				keys.add(key(i));
+			}
+		}
+		return keys;
+	}
+
+	/**
+	 * <p>Returns the value associated with the specified key.</p>
+	 * @param key A key to lookup
+	 * @return The value associated with the specified key or <tt>null</tt> for none.
+	 * @since Descripter 1.0
+	 */
+	@Override
+	public final Object get(Key key) {
+		int i = key.hashCode();
+		if (i < 0) {
+			return key.equals(core()._length) ? length : super.get(key);
+		}
+		Object o = element(i);
+		return o != null || with == null ? o : with.get(key);
+	}
+
+	/**
+	 * <p>Updates the value associated with the specified key if it is visible.</p>
+	 * <p>Note that this method does nothing if the key is not visible.</p>
+	 * @param key A key to update
+	 * @throws RuntimeException if the current array is read-only.
+	 * @since Descripter 1.0
+	 */
+	@Override
+	public final void update(Key key, Object val) {
+		int i = key.hashCode();
+		if (i < 0 && !key.equals(core()._length)) {
+			super.update(key, val);
+		} else if (i < 0 || element(i) != null) {
+			put(key, val);
+		} else if (with != null) {
+			with.update(key, val);
+		}
+	}
+
+	/**
+	 * <p>Hides the specified key from the current array if it is visible.</p>
+	 * <p>Note that this method does nothing if the key is not visible.</p>
+	 * @param key A key to remove
+	 * @throws RuntimeException if the current array is read-only.
+	 * @since Descripter 1.0
+	 */
+	@Override
+	public final void hide(Key key) {
+		int i = key.hashCode();
+		if (i < 0) {
+			super.hide(key);
+		} else if (i < length) {
+			element(i, null);
 		}
-		super.put(core()._length, length);
 	}
 
 	/**
@@ -157,12 +601,12 @@ public class CArray extends CObject
 	 */
 	@Override
 	public final void put(Key key, Object val) {
-		if (key.equals(core()._length)) {
+		int i = key.hashCode();
+		if (i >= 0) {
+			element(i, evaluate(val));
+		} else if (key.equals(core()._length)) {
 			length(intValue(val));
 		} else {
-			if (key.hashCode() >= length()) {
-				length(key.hashCode() + 1);
-			}
 			super.put(key, val);
 		}
 	}
@@ -181,10 +625,7 @@ public class CArray extends CObject
 		for (int j = 0, length = args.length(); j < length; j++) {
 			Object o = args.get(j);
 			if (o instanceof CArray) {
-				CArray a = (CArray)o;
-				for (int i = 0, len = a.length(); i < len; i++) {
-					array.put(array.length(), a.get(i));
-				}
+				array.append((CArray)o);
 			} else {
 				array.put(array.length(), o);
 			}
@@ -192,6 +633,34 @@ public class CArray extends CObject
 		return array;
 	}
 
+	private final void append(CArray a) {
+		int start = length, len = a.length;
+		if (readOnly()) {
+			throw new RuntimeException();
+		}
+		if (ints != null && a.ints != null && size == start && a.size == len) {
+			if (size + len > ints.length) {
+				ints = Arrays.copyOf(ints, Math.max(size + len, ints.length + (ints.length >> 1)));
+			}
+			System.arraycopy(a.ints, 0, ints, size, len);
+			size = length = start + len;
+		} else if (doubles != null && a.doubles != null && size == start && a.size == len) {
+			if (size + len > doubles.length) {
+				doubles = Arrays.copyOf(doubles, Math.max(size + len, doubles.length + (doubles.length >> 1)));
+			}
+			System.arraycopy(a.doubles, 0, doubles, size, len);
+			size = length = start + len;
+		} else if (!typed() && dense() && a.dense() && dense(start + len - 1)) {
+			capacity(start + len);
+			copy(a, 0, elements, start, len);
+			length = start + len;
+		} else {
+			for (int i = 0; i < len; i++) {
+				put(start + i, a.get(i));
+			}
+		}
+	}
+
 	/**
 	 * <p>Converts each element of the current array instance to a string and then 
 	 * concatenates those strings, inserting a comma between the elements and returns 
@@ -227,7 +696,10 @@ public class CArray extends CObject
 			if (i > 0) {
 				sb.append(separator);
 			}
-			sb.append(get(i).toString());
+			Object o = element(i);
+			if (o != null) {
+				sb.append(o.toString());
+			}
 		}
 		return sb.toString();
 	}
@@ -241,6 +713,9 @@ public class CArray extends CObject
 	 */
 	public final Object pop() {
 		int last = length() - 1;
+		if (last < 0) {
+			return null;
+		}
 		Object o = get(last);
 		length(last);
 		return o;
@@ -254,9 +729,7 @@ public class CArray extends CObject
 	 * @since Descripter 1.0
 	 */
 	public final int push(CArray args) {
-		for (int i = 0, length = args.length(); i < length; i++) {
-			put(length(), args.get(i));
-		}
+		append(args);
 		return length();
 	}
 
@@ -270,6 +743,14 @@ public class CArray extends CObject
 	 */
 	public final CArray reverse() {
 		CArray array = new CArray(constructor);
+		if (dense()) {
+			array.elements = new Object[length];
+			for (int i = 0, j = length - 1; j >= 0; i++, j--) {
+				array.elements[i] = element(j);
+			}
+			array.length = length;
+			return array;
+		}
 		for (int i = length() - 1; i >= 0; i--) {
 			array.put(array.length(), get(i));
 		}
@@ -278,11 +759,48 @@ public class CArray extends CObject
 
 	private final void move(int start, int count) {
 		int length = length();
+		if (start < 0 || start > length) {
+			return;
+		}
+		if (numeric() && count < 0) {
+			if (readOnly()) {
+				throw new RuntimeException();
+			}
+			int from = Math.min(start - count, size);
+			if (ints != null) {
+				System.arraycopy(ints, from, ints, start, size - from);
+			} else {
+				System.arraycopy(doubles, from, doubles, start, size - from);
+			}
+			size = this.length = Math.max(length + count, start);
+			return;
+		}
+		if (dense() && dense(length + count - 1)) {
+			if (readOnly()) {
+				throw new RuntimeException();
+			}
+			objects();
+			if (count < 0) {
+				int from = Math.min(start - count, length), end = Math.min(length, elements.length);
+				if (from < end) {
+					System.arraycopy(elements, from, elements, start, end - from);
+				}
+				length(Math.max(length + count, start));
+			} else if (count > 0) {
+				capacity(length + count);
+				int end = Math.min(length, elements.length);
+				if (start < end) {
+					System.arraycopy(elements, start, elements, start + count, end - start);
+				}
+				this.length = length + count;
+			}
+			return;
+		}
 		if (count < 0) {
-			for (int i = start, j = i - count; i < length; i++, j++) {
+			for (int i = start, j = i - count; j < length; i++, j++) {
 				put(i, get(j));
 			}
-			length(length - count);
+			length(Math.max(length + count, start));
 		} else if (count > 0) {
 			for (int i = length - 1, j = i + count; i >= start; i--, j--) {
 				put(j, get(i));
@@ -302,7 +820,7 @@ public class CArray extends CObject
 	 */
 	public final Object shift() {
 		Object o = get(0);
-		move(1, -1);
+		move(0, -1);
 		return o;
 	}
 
@@ -396,7 +914,31 @@ public class CArray extends CObject
 		if (end < 0) {
 			end += length;
 		}
+		if (start < 0) {
+			start = 0;
+		}
+		if (end > length) {
+			end = length;
+		}
 		CArray array = new CArray(constructor);
+		if (start >= end) {
+			return array;
+		}
+		if (ints != null) {
+			array.ints = Arrays.copyOfRange(ints, Math.min(start, size), Math.min(start, size) + end - start);
+			array.size = Math.max(Math.min(end, size) - start, 0);
+			array.length = end - start;
+			return array;
+		} else if (doubles != null) {
+			array.doubles = Arrays.copyOfRange(doubles, Math.min(start, size), Math.min(start, size) + end - start);
+			array.size = Math.max(Math.min(end, size) - start, 0);
+			array.length = end - start;
+			return array;
+		} else if (dense()) {
+			array.elements = Arrays.copyOfRange(elements, Math.min(start, elements.length), Math.min(start, elements.length) + end - start);
+			array.length = end - start;
+			return array;
+		}
 		for (int i = start, j = 0; i < end; i++, j++) {
 			if (has(i)) {
 				array.put(j, get(i));
@@ -416,10 +958,28 @@ public class CArray extends CObject
 	 * @since Descripter 1.0
 	 */
 	public final CArray sort() {
+		if (dense()) {
+			return sort(new Comparator<Object>() {
+				@Override
+				public int compare(Object o1, Object o2) {
+					return CArray.toString(o1).compareTo(CArray.toString(o2));
+				}
+			});
+		}
 		Collections.sort(list());
 		return this;
 	}
 
+	private CArray sort(Comparator<Object> comparator) {
+		if (readOnly()) {
+			throw new RuntimeException();
+		}
+		objects();
+		capacity(length);
+		Arrays.sort(elements, 0, length, comparator);
+		return this;
+	}
+
 	private List<Element> list() {
 		return new AbstractList<Element>() {
 			@Override
@@ -484,6 +1044,14 @@ public class CArray extends CObject
 		if (orderer == null) {
 			return sort();
 		}
+		if (dense()) {
+			return sort(new Comparator<Object>() {
+				@Override
+				public int compare(Object o1, Object o2) {
+					return intValue(core().call(orderer, o1, o2));
+				}
+			});
+		}
 		Collections.sort(
 				list(),
 				new Comparator<Element>() {
@@ -600,8 +1168,38 @@ public class CArray extends CObject
 	 */
 	public final CArray splice(int start, int deleteCount, CArray values) {
 		CArray array = slice(start, start + deleteCount);
-		move(start, values.length() - deleteCount);
-		for (int i = start, j = 0; j < values.length(); i++, j++) {
+		int count = values.length();
+		if (numeric() && values.numeric() && start >= 0 && deleteCount >= 0 && start + deleteCount <= length &&
+				(ints != null && values.ints != null || doubles != null && values.doubles != null)) {
+			if (readOnly()) {
+				throw new RuntimeException();
+			}
+			int rest = length - start - deleteCount, n = length - deleteCount + count;
+			if (ints != null) {
+				if (n > ints.length) {
+					ints = Arrays.copyOf(ints, Math.max(n, ints.length + (ints.length >> 1)));
+				}
+				System.arraycopy(ints, start + deleteCount, ints, start + count, rest);
+				System.arraycopy(values.ints, 0, ints, start, count);
+			} else {
+				if (n > doubles.length) {
+					doubles = Arrays.copyOf(doubles, Math.max(n, doubles.length + (doubles.length >> 1)));
+				}
+				System.arraycopy(doubles, start + deleteCount, doubles, start + count, rest);
+				System.arraycopy(values.doubles, 0, doubles, start, count);
+			}
+			size = length = n;
+			return array;
+		}
+		move(start, count - deleteCount);
+		if (dense() && values.dense() && dense(start + count - 1)) {
+			objects();
+			capacity(start + count);
+			Arrays.fill(elements, start, start + count, null);
+			copy(values, 0, elements, start, count);
+			return array;
+		}
+		for (int i = start, j = 0; j < count; i++, j++) {
 			put(i, values.get(j));
 		}
 		return array;
@@ -92,6 +92,13 @@ public class CMath extends CObject
 	 * @since Descripter 1.0
 	 */
 	public final Number max(CArray args) {
+		if (args.numeric() && args.length() > 0) {
+			double m = args.number(0);
+			for (int i = 1, len = args.length(); i < len; i++) {
+				m = Math.max(m, args.number(i));
+			}
+			return m;
+		}
 		double m = doubleValue(args.get(0));
 		for (int i = 1, len = args.length(); i < len; i++) {
 			m = Math.max(m, doubleValue(args.get(i)));
@@ -106,6 +113,13 @@ public class CMath extends CObject
 	 * @since Descripter 1.0
 	 */
 	public final Number min(CArray args) {
+		if (args.numeric() && args.length() > 0) {
+			double m = args.number(0);
+			for (int i = 1, len = args.length(); i < len; i++) {
+				m = Math.min(m, args.number(i));
+			}
+			return m;
+		}
 		double m = doubleValue(args.get(0));
 		for (int i = 1, len = args.length(); i < len; i++) {
 			m = Math.min(m, doubleValue(args.get(i)));
@@ -129,7 +143,7 @@ public class CMath extends CObject
 				return new Functor<Core>(this) {
 					@Override
 					public Object function() {
-						return Math.abs(doubleValue(arguments().get(0)));
+						return Math.abs(doubleValue(argument(0)));
 					}
 				};
 			}
@@ -140,7 +154,7 @@ public class CMath extends CObject
 				return new Functor<Core>(this) {
 					@Override
 					public Object function() {
-						return Math.acos(doubleValue(arguments().get(0)));
+						return Math.acos(doubleValue(argument(0)));
 					}
 				};
 			}
@@ -151,7 +165,7 @@ public class CMath extends CObject
 				return new Functor<Core>(this) {
 					@Override
 					public Object function() {
-						return Math.asin(doubleValue(arguments().get(0)));
+						return Math.asin(doubleValue(argument(0)));
 					}
 				};
 			}
@@ -162,7 +176,7 @@ public class CMath extends CObject
 				return new Functor<Core>(this) {
 					@Override
 					public Object function() {
-						return Math.atan(doubleValue(arguments().get(0)));
+						return Math.atan(doubleValue(argument(0)));
 					}
 				};
 			}
@@ -173,7 +187,7 @@ public class CMath extends CObject
 				return new Functor<Core>(this) {
 					@Override
 					public Object function() {
-						return Math.atan2(doubleValue(arguments().get(0)), doubleValue(arguments().get(1)));
+						return Math.atan2(doubleValue(argument(0)), doubleValue(argument(1)));
 					}
 				};
 			}
@@ -184,7 +198,7 @@ public class CMath extends CObject
 				return new Functor<Core>(this) {
 					@Override
 					public Object function() {
-						return Math.ceil(doubleValue(arguments().get(0)));
+						return Math.ceil(doubleValue(argument(0)));
 					}
 				};
 			}
@@ -195,7 +209,7 @@ public class CMath extends CObject
 				return new Functor<Core>(this) {
 					@Override
 					public Object function() {
-						return Math.cos(doubleValue(arguments().get(0)));
+						return Math.cos(doubleValue(argument(0)));
 					}
 				};
 			}
@@ -206,7 +220,7 @@ public class CMath extends CObject
 				return new Functor<Core>(this) {
 					@Override
 					public Object function() {
-						return Math.exp(doubleValue(arguments().get(0)));
+						return Math.exp(doubleValue(argument(0)));
 					}
 				};
 			}
@@ -217,7 +231,7 @@ public class CMath extends CObject
 				return new Functor<Core>(this) {
 					@Override
 					public Object function() {
-						return Math.floor(doubleValue(arguments().get(0)));
+						return Math.floor(doubleValue(argument(0)));
 					}
 				};
 			}
@@ -250,7 +264,7 @@ public class CMath extends CObject
 				return new Functor<Core>(this) {
 					@Override
 					public Object function() {
-						return Math.log(doubleValue(arguments().get(0)));
+						return Math.log(doubleValue(argument(0)));
 					}
 				};
 			}
@@ -261,7 +275,7 @@ public class CMath extends CObject
 				return new Functor<Core>(this) {
 					@Override
 					public Object function() {
-						return Math.pow(doubleValue(arguments().get(0)), doubleValue(arguments().get(1)));
+						return Math.pow(doubleValue(argument(0)), doubleValue(argument(1)));
 					}
 				};
 			}
@@ -283,7 +297,7 @@ public class CMath extends CObject
 				return new Functor<Core>(this) {
 					@Override
 					public Object function() {
-						return Math.round(doubleValue(arguments().get(0)));
+						return Math.round(doubleValue(argument(0)));
 					}
 				};
 			}
@@ -294,7 +308,7 @@ public class CMath extends CObject
 				return new Functor<Core>(this) {
 					@Override
 					public Object function() {
-						return Math.sin(doubleValue(arguments().get(0)));
+						return Math.sin(doubleValue(argument(0)));
 					}
 				};
 			}
@@ -305,7 +319,7 @@ public class CMath extends CObject
 				return new Functor<Core>(this) {
 					@Override
 					public Object function() {
-						return Math.sinh(doubleValue(arguments().get(0)));
+						return Math.sinh(doubleValue(argument(0)));
 					}
 				};
 			}
@@ -316,7 +330,7 @@ public class CMath extends CObject
 				return new Functor<Core>(this) {
 					@Override
 					public Object function() {
-						return Math.sqrt(doubleValue(arguments().get(0)));
+						return Math.sqrt(doubleValue(argument(0)));
 					}
 				};
 			}
@@ -327,7 +341,7 @@ public class CMath extends CObject
 				return new Functor<Core>(this) {
 					@Override
 					public Object function() {
-						return Math.tan(doubleValue(arguments().get(0)));
+						return Math.tan(doubleValue(argument(0)));
 					}
 				};
 			}
@@ -338,7 +352,7 @@ public class CMath extends CObject
 				return new Functor<Core>(this) {
 					@Override
 					public Object function() {
-						return Math.tanh(doubleValue(arguments().get(0)));
+						return Math.tanh(doubleValue(argument(0)));
 					}
 				};
 			}
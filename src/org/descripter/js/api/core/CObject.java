@@ -19,8 +19,13 @@
 
 package org.descripter.js.api.core;
 
+import java.util.Arrays;
+import java.util.Set;
+
+import org.descripter.js.api.Context;
 import org.descripter.js.api.Core;
 import org.descripter.js.api.Function;
+import org.descripter.js.api.Key;
 import org.descripter.js.api.Objective;
 
 /**
@@ -31,6 +36,8 @@ import org.descripter.js.api.Objective;
  */
 public class CObject extends Objective<CObject>
 {
+	private final static Object[] EMPTY = new Object[0];
+
 	/**
 	 * <p>Emulates the <tt>null</tt> object in JavaScript.</p>
 	 * @since Descripter 1.0
@@ -48,6 +55,9 @@ public class CObject extends Objective<CObject>
 	 */
 	public final Function<?> constructor;
 
+	private Shape shape = Shape.EMPTY;
+	private Object[] slots = EMPTY;
+
 	/**
 	 * <p>Constructs an {@link Objective} context of this type.</p>
 	 * @param constructor The constructor {@link Function} object.
@@ -70,6 +80,210 @@ public class CObject extends Objective<CObject>
 		return constructor.core();
 	}
 
+	/**
+	 * <p>Returns the {@link Shape} describing the property layout of this object.</p>
+	 * @return The {@link Shape} of this object or <tt>null</tt> if this object stores its 
+	 * properties in a hash map.
+	 * @since Descripter 1.0
+	 */
+	public final Shape shape() {
+		return shape;
+	}
+
+	private final boolean hashed(Key key) {
+		return shape == null || key == null;
+	}
+
+	private final void dictionary() {
+		Shape s = shape;
+		Object[] o = slots;
+		shape = null;
+		slots = EMPTY;
+		for (int i = 0, n = s.size(); i < n; i++) {
+			super.put(s.key(i), o[i]);
+		}
+	}
+
+	/**
+	 * <p>Sets the current object to <tt>readOnly</tt>.</p>
+	 * @param readOnly <tt>true</tt> to set the current object read-only; <tt>false</tt>, otherwise.
+	 * @since Descripter 1.0
+	 */
+	@Override
+	public void readOnly(boolean readOnly) {
+		if (readOnly() ^ readOnly) {
+			super.readOnly(readOnly);
+			for (Object o : slots) {
+				if (o instanceof Context) {
+					((Context<?, ?, ?>)o).readOnly(readOnly);
+				}
+			}
+		}
+	}
+
+	/**
+	 * <p>Finds the most inner context that owns the specified key.</p>
+	 * @param key A key to lookup
+	 * @return The most inner context that owns the specified key or <tt>null</tt> if no such containers.
+	 * @since Descripter 1.0
+	 */
+	@Override
+	public Context<Key, Object, ?> in(Key key) {
+		if (hashed(key)) {
+			return super.in(key);
+		}
+		return shape.slot(key) >= 0 || with == null ? this : with.in(key);
+	}
+
+	/**
+	 * <p>Tells if the current object owns the specified key.</p>
+	 * @param key A key to test
+	 * @return <tt>true</tt> if the current object owns the <tt>key</tt>; <tt>false</tt>, otherwise.
+	 * @since Descripter 1.0
+	 */
+	@Override
+	public boolean owns(Key key) {
+		if (hashed(key)) {
+			return super.owns(key);
+		}
+		int i = shape.slot(key);
+		return i >= 0 && slots[i] != null;
+	}
+
+	/**
+	 * <p>Tells if the specified key is visible in the current object.</p>
+	 * @param key A key to test
+	 * @return <tt>true</tt> if the <tt>key</tt> is visible in the current object; <tt>false</tt>, otherwise.
+	 * @since Descripter 1.0
+	 */
+	@Override
+	public boolean has(Key key) {
+		if (hashed(key)) {
+			return super.has(key);
+		}
+		return shape.slot(key) >= 0 || with != null && with.has(key);
+	}
+
+	/**
+	 * <p>Returns the {@link Set} of keys that are visible to the current object.</p>
+	 * @return The {@link Set} of keys that are visible to the current object.
+	 * @since Descripter 1.0
+	 */
+	@Override
+	public Set<Key> keys() {
+		Set<Key> keys = super.keys();
+		if (shape != null) {
+			for (int i = 0, n = shape.size(); i < n; i++) {
+				keys.add(shape.key(i));
+			}
+		}
+		return keys;
+	}
+
+	/**
+	 * <p>Returns the value associated with the specified key.</p>
+	 * @param key A key to lookup
+	 * @return The value associated with the specified key or <tt>null</tt> for none.
+	 * @since Descripter 1.0
+	 */
+	@Override
+	public Object get(Key key) {
+		if (hashed(key)) {
+			return super.get(key);
+		}
+		int i = shape.slot(key);
+		return i >= 0 ? slots[i] : with != null ? with.get(key) : null;
+	}
+
+	/**
+	 * <p>Updates the value associated with the specified key if it is visible.</p>
+	 * <p>Note that this method does nothing if the key is not visible.</p>
+	 * @param key A key to update
+	 * @throws RuntimeException if the current object is read-only.
+	 * @since Descripter 1.0
+	 */
+	@Override
+	public void update(Key key, Object val) {
+		if (hashed(key)) {
+			super.update(key, val);
+		} else if (shape.slot(key) >= 0) {
+			put(key, val);
+		} else if (with != null) {
+			with.update(key, val);
+		}
+	}
+
+	/**
+	 * <p>Sets the value associated with the specified key.</p>
+	 * <p>The value goes to the slot of the key in the {@link Shape} of this object, transiting 
+	 * to a new {@link Shape} for a new key.</p>
+	 * @param key A {@link Key} to set the value
+	 * @param val The value to set
+	 * @throws RuntimeException if the current object is read-only.
+	 * @since Descripter 1.0
+	 */
+	@Override
+	public void put(Key key, Object val) {
+		if (hashed(key)) {
+			super.put(key, val);
+			return;
+		}
+		if (readOnly()) {
+			throw new RuntimeException();
+		}
+		int i = shape.slot(key);
+		if (i < 0) {
+			Shape s = shape.with(key);
+			if (s == null) {
+				dictionary();
+				super.put(key, val);
+				return;
+			}
+			i = s.size() - 1;
+			if (i >= slots.length) {
+				slots = Arrays.copyOf(slots, Math.max(4, slots.length << 1));
+			}
+			shape = s;
+			shadow(key);
+		}
+		slots[i] = evaluate(val);
+	}
+
+	/**
+	 * <p>Returns the value stored in the specified slot of this object.</p>
+	 * <p>The slot must be described by the current {@link Shape} of this object.</p>
+	 * @param slot The index of a slot
+	 * @return The value stored in the slot
+	 * @since Descripter 1.0
+	 */
+	public final Object slot(int slot) {
+		return slots[slot];
+	}
+
+	/**
+	 * <p>Stores a value in the specified slot of this object, transiting to the specified {@link Shape}.</p>
+	 * <p>The {@link Shape} must be the current one of this object or the one that adds the key of 
+	 * the slot to it.</p>
+	 * @param shape The {@link Shape} of this object after the value is stored
+	 * @param slot The index of a slot
+	 * @param val The value to store
+	 * @throws RuntimeException if the current object is read-only.
+	 * @since Descripter 1.0
+	 */
+	public final void slot(Shape shape, int slot, Object val) {
+		if (readOnly()) {
+			throw new RuntimeException();
+		}
+		if (slot >= slots.length) {
+			slots = Arrays.copyOf(slots, Math.max(4, slots.length << 1));
+		}
+		if (this.shape != shape) {
+			this.shape = shape;
+			shadow(shape.key(slot));
+		}
+		slots[slot] = evaluate(val);
+	}
+
 	/**
 	 * <p>Returns a string representation of the current object.</p>
 	 * @return The string representation of the current object
@@ -0,0 +1,170 @@
+
+/*
+ *  Descripter 1.0 - Java Script Engines
+ *  Copyright (C) 2010-2015  Jianjun Liu (J.J.Liu)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.descripter.js.api.core;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.descripter.js.api.Key;
+
+/**
+ * <p>Describes the property layout shared by {@link CObject}s.</p>
+ * <p>Objects that define the same properties in the same order share a {@link Shape},
+ * which maps each property {@link Key} to a slot of a flat value array.</p>
+ * <p>A {@link Shape} references the one it was transited from, while transitions are only held
+ * weakly, so that the tree of shapes holds no more than the shapes of live objects and their
+ * ancestors, however many different keys objects have been given.</p>
+ *
+ * @author <a href="mailto:jianjunliu@126.com">J.J.Liu (Jianjun Liu)</a> at <a href="http://www.descripter.org" target="_blank">http://www.descripter.org</a>
+ * @since Descripter 1.0
+ */
+public final class Shape
+{
+	/**
+	 * <p>The maximum number of slots a {@link Shape} may describe.</p>
+	 * <p>An object that grows beyond it stores its properties in a hash map instead.</p>
+	 * @since Descripter 1.0
+	 */
+	public final static int SLOTS = 64;
+	/**
+	 * <p>The maximum number of transitions cached for a {@link Shape}.</p>
+	 * @since Descripter 1.0
+	 */
+	public final static int TRANSITIONS = 256;
+
+	/**
+	 * <p>The empty {@link Shape} all objects start with.</p>
+	 * @since Descripter 1.0
+	 */
+	public final static Shape EMPTY = new Shape(null, new Key[0], null);
+
+	private final Shape parent;
+	private final Key[] keys;
+	private final Map<Key, Integer> index;
+	private final ConcurrentHashMap<Key, WeakReference<Shape>> transitions =
+		new ConcurrentHashMap<Key, WeakReference<Shape>>();
+
+	private Shape(Shape parent, Key[] keys, Map<Key, Integer> index) {
+		this.parent = parent;
+		this.keys = keys;
+		this.index = index;
+	}
+
+	/**
+	 * <p>Returns the number of slots described by this {@link Shape}.</p>
+	 * @return The number of slots
+	 * @since Descripter 1.0
+	 */
+	public final int size() {
+		return keys.length;
+	}
+
+	/**
+	 * <p>Returns the {@link Key} of the specified slot.</p>
+	 * @param slot The index of a slot
+	 * @return The {@link Key} stored in the slot
+	 * @since Descripter 1.0
+	 */
+	public final Key key(int slot) {
+		return keys[slot];
+	}
+
+	/**
+	 * <p>Finds the slot of the specified {@link Key}.</p>
+	 * @param key A {@link Key} to lookup
+	 * @return The index of the slot or <tt>-1</tt> if this {@link Shape} does not describe the key.
+	 * @since Descripter 1.0
+	 */
+	public final int slot(Key key) {
+		if (index != null) {
+			Integer i = index.get(key);
+			return i != null ? i : -1;
+		}
+		int h = key.hashCode();
+		for (int i = keys.length - 1; i >= 0; i--) {
+			if (keys[i].hashCode() == h) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * <p>Returns the {@link Shape} that adds the specified {@link Key} to this one.</p>
+	 * @param key The {@link Key} of the new slot
+	 * @return The transited {@link Shape} or <tt>null</tt> if no more shapes should be created
+	 * from this one.
+	 * @since Descripter 1.0
+	 */
+	public final Shape with(Key key) {
+		WeakReference<Shape> r = transitions.get(key);
+		Shape s = r != null ? r.get() : null;
+		if (s != null) {
+			return s;
+		}
+		if (keys.length >= SLOTS) {
+			return null;
+		}
+		if (transitions.size() >= TRANSITIONS) {
+			purge();
+			if (transitions.size() >= TRANSITIONS) {
+				return null;
+			}
+		}
+		Key[] ks = Arrays.copyOf(keys, keys.length + 1);
+		ks[keys.length] = key;
+		Map<Key, Integer> idx = null;
+		if (ks.length > 8) {
+			idx = new HashMap<Key, Integer>(ks.length * 2);
+			for (int i = 0; i < ks.length; i++) {
+				idx.put(ks[i], i);
+			}
+		}
+		s = new Shape(this, ks, idx);
+		WeakReference<Shape> n = new WeakReference<Shape>(s);
+		for (;;) {
+			if (r == null) {
+				r = transitions.putIfAbsent(key, n);
+				if (r == null) {
+					return s;
+				}
+			} else if (transitions.replace(key, r, n)) {
+				return s;
+			} else {
+				r = transitions.get(key);
+			}
+			Shape o = r != null ? r.get() : null;
+			if (o != null) {
+				return o;
+			}
+		}
+	}
+
+	private final void purge() {
+		for (Map.Entry<Key, WeakReference<Shape>> e : transitions.entrySet()) {
+			if (e.getValue().get() == null) {
+				transitions.remove(e.getKey(), e.getValue());
+			}
+		}
+	}
+}
@@ -65,7 +65,7 @@ public final class Array_ extends Function<Core>
 				return new Functor<Core>(this) {
 					@Override
 					public Object function() {
-						return ((CArray)this_()).join(toString(arguments().get(0)));
+						return ((CArray)this_()).join(toString(argument(0)));
 					}
 				};
 			}
@@ -131,7 +131,7 @@ public final class Array_ extends Function<Core>
 				return new Functor<Core>(this) {
 					@Override
 					public Object function() {
-						return ((CArray)this_()).sort((Function<?>)arguments().get(0));
+						return ((CArray)this_()).sort((Function<?>)argument(0));
 					}
 				};
 			}
@@ -71,7 +71,7 @@ public class Boolean_ extends Function<Core>
 		return new Functor<Core>(this) {
 			@Override
 			public Object function() {
-				return new CBoolean(Boolean_.this, bool(arguments().get(0)));
+				return new CBoolean(Boolean_.this, bool(argument(0)));
 			}
 		};
 	}
@@ -252,7 +252,7 @@ public class Date_ extends Function<Core>
 				return new Functor<Core>(this) {
 					@Override
 					public Object function() {
-						return ((CDate)this_()).setDate(toNumber(arguments().get(0)));
+						return ((CDate)this_()).setDate(toNumber(argument(0)));
 					}
 				};
 			}
@@ -285,7 +285,7 @@ public class Date_ extends Function<Core>
 				return new Functor<Core>(this) {
 					@Override
 					public Object function() {
-						return ((CDate)this_()).setMilliseconds(toNumber(arguments().get(0)));
+						return ((CDate)this_()).setMilliseconds(toNumber(argument(0)));
 					}
 				};
 			}
@@ -329,7 +329,7 @@ public class Date_ extends Function<Core>
 				return new Functor<Core>(this) {
 					@Override
 					public Object function() {
-						return ((CDate)this_()).setTime(toNumber(arguments().get(0)));
+						return ((CDate)this_()).setTime(toNumber(argument(0)));
 					}
 				};
 			}
@@ -340,7 +340,7 @@ public class Date_ extends Function<Core>
 				return new Functor<Core>(this) {
 					@Override
 					public Object function() {
-						return ((CDate)this_()).setUTCDate(toNumber(arguments().get(0)));
+						return ((CDate)this_()).setUTCDate(toNumber(argument(0)));
 					}
 				};
 			}
@@ -373,7 +373,7 @@ public class Date_ extends Function<Core>
 				return new Functor<Core>(this) {
 					@Override
 					public Object function() {
-						return ((CDate)this_()).setUTCMilliseconds(toNumber(arguments().get(0)));
+						return ((CDate)this_()).setUTCMilliseconds(toNumber(argument(0)));
 					}
 				};
 			}
@@ -499,7 +499,7 @@ public class Date_ extends Function<Core>
 		return new Functor<Core>(this) {
 			@Override
 			public Object function() {
-				return Date_.this.alloc(this, arguments().get(0));
+				return Date_.this.alloc(this, argument(0));
 			}
 		};
 	}
@@ -55,7 +55,7 @@ public class Number_ extends Function<Core>
 				return new Functor<Core>(this) {
 					@Override
 					public Object function() {
-						return ((CNumber)this_()).toExponential(arguments().get(0));
+						return ((CNumber)this_()).toExponential(argument(0));
 					}
 				};
 			}
@@ -66,7 +66,7 @@ public class Number_ extends Function<Core>
 				return new Functor<Core>(this) {
 					@Override
 					public Object function() {
-						return ((CNumber)this_()).toFixed(arguments().get(0));
+						return ((CNumber)this_()).toFixed(argument(0));
 					}
 				};
 			}
@@ -109,7 +109,7 @@ public class Number_ extends Function<Core>
 		return new Functor<Core>(this) {
 			@Override
 			public Object function() {
-				return new CNumber(Number_.this, toNumber(arguments().get(0)));
+				return new CNumber(Number_.this, toNumber(argument(0)));
 			}
 		};
 	}
@@ -54,7 +54,7 @@ public class Object_ extends Function<Core>
 				return new Functor<Core>(this) {
 					@Override
 					public Object function() {
-						return this_().owns(key(toString(arguments().get(0))));
+						return this_().owns(key(toString(argument(0))));
 					}
 				};
 			}
@@ -65,7 +65,7 @@ public class Object_ extends Function<Core>
 				return new Functor<Core>(this) {
 					@Override
 					public Object function() {
-						return ((Objective<?>)this_()).with((Objective<?>)arguments().get(0));
+						return ((Objective<?>)this_()).with((Objective<?>)argument(0));
 					}
 				};
 			}
@@ -76,7 +76,7 @@ public class Object_ extends Function<Core>
 				return new Functor<Core>(this) {
 					@Override
 					public Object function() {
-						return this_().owns(key(toString(arguments().get(0))));
+						return this_().owns(key(toString(argument(0))));
 					}
 				};
 			}
@@ -151,7 +151,7 @@ public class Object_ extends Function<Core>
 		return new Functor<Core>(this) {
 			@Override
 			public Object function() {
-				return Object_.this.alloc(with, arguments().get(0));
+				return Object_.this.alloc(with, argument(0));
 			}
 		};
 	}
@@ -55,7 +55,7 @@ public class RegExp_ extends Function<Core>
 				return new Functor<Core>(this) {
 					@Override
 					public Object function() {
-						return ((CRegExp)this_()).exec(arguments().get(0));
+						return ((CRegExp)this_()).exec(argument(0));
 					}
 				};
 			}
@@ -66,7 +66,7 @@ public class RegExp_ extends Function<Core>
 				return new Functor<Core>(this) {
 					@Override
 					public Object function() {
-						return ((CRegExp)this_()).test(arguments().get(0));
+						return ((CRegExp)this_()).test(argument(0));
 					}
 				};
 			}
@@ -55,7 +55,7 @@ public class String_ extends Function<Core>
 				return new Functor<Core>(this) {
 					@Override
 					public Object function() {
-						return ((CString)this_()).charAt(arguments().get(0));
+						return ((CString)this_()).charAt(argument(0));
 					}
 				};
 			}
@@ -66,7 +66,7 @@ public class String_ extends Function<Core>
 				return new Functor<Core>(this) {
 					@Override
 					public Object function() {
-						return ((CString)this_()).charCodeAt(arguments().get(0));
+						return ((CString)this_()).charCodeAt(argument(0));
 					}
 				};
 			}
@@ -110,7 +110,7 @@ public class String_ extends Function<Core>
 				return new Functor<Core>(this) {
 					@Override
 					public Object function() {
-						return ((CString)this_()).localeCompare(arguments().get(0));
+						return ((CString)this_()).localeCompare(argument(0));
 					}
 				};
 			}
@@ -121,7 +121,7 @@ public class String_ extends Function<Core>
 				return new Functor<Core>(this) {
 					@Override
 					public Object function() {
-						return ((CString)this_()).match((CRegExp)arguments().get(0));
+						return ((CString)this_()).match((CRegExp)argument(0));
 					}
 				};
 			}
@@ -143,7 +143,7 @@ public class String_ extends Function<Core>
 				return new Functor<Core>(this) {
 					@Override
 					public Object function() {
-						return ((CString)this_()).search((CRegExp)arguments().get(0));
+						return ((CString)this_()).search((CRegExp)argument(0));
 					}
 				};
 			}
@@ -261,7 +261,7 @@ public class String_ extends Function<Core>
 		return new Functor<Core>(this) {
 			@Override
 			public Object function() {
-				return new CString(String_.this, arguments().get(0));
+				return new CString(String_.this, argument(0));
 			}
 		};
 	}
@@ -56,6 +56,12 @@ public abstract class AbstractNode extends SimpleNode
 	 */
 	public Token lastToken;
 
+	/**
+	 * <p>The executable form compiled from this node by an interpreter or <tt>null</tt> for none.</p>
+	 * @since Descripter 1.0
+	 */
+	public Object compiled;
+
 	/**
 	 * <p>Accepts children.</p>
 	 * @param visitor The visitor
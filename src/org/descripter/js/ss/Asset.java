@@ -0,0 +1,487 @@
+
+/*
+ *  Descripter 1.0 - Java Script Engines
+ *  Copyright (C) 2010-2015  Jianjun Liu (J.J.Liu)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.descripter.js.ss;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+
+/**
+ * <p>Serves the static files of a {@link Daemon}.</p>
+ * <p>Each file is answered with a validator pair of <tt>Last-Modified</tt> and <tt>ETag</tt>, so
+ * that a conditional request for an unchanged file gets <tt>304 Not Modified</tt> without a body.
+ * A single byte <tt>Range</tt> is answered with <tt>206 Partial Content</tt>. Small files are kept
+ * in memory until they are modified; larger ones are transferred from a {@link FileChannel}
+ * without copying them through a heap buffer of this class.</p>
+ * <p>A text file is compressed for a client that accepts <tt>gzip</tt> or <tt>deflate</tt>. The
+ * compressed variants are kept in memory along with the file and dropped when it is modified, so a
+ * file is compressed once per version rather than once per request. Optionally a <tt>gzip</tt>
+ * variant is also kept on disk next to the file, stamped with the modification time of the file,
+ * which keeps it across restarts and lets files too large to compress in memory be compressed.</p>
+ *
+ * @author <a href="mailto:jianjunliu@126.com">J.J.Liu (Jianjun Liu)</a> at <a href="http://www.descripter.org" target="_blank">http://www.descripter.org</a>
+ * @since Descripter 1.0
+ */
+public final class Asset
+{
+	/**
+	 * <p>The maximum size of a file kept in memory.</p>
+	 * @since Descripter 1.0
+	 */
+	public final static int SMALL = 64 * 1024;
+	/**
+	 * <p>The maximum total size of the files kept in memory.</p>
+	 * @since Descripter 1.0
+	 */
+	public final static long CACHE = 16L * 1024 * 1024;
+	/**
+	 * <p>The maximum size of a file compressed in memory.</p>
+	 * @since Descripter 1.0
+	 */
+	public final static int COMPRESS = 1024 * 1024;
+
+	private final static byte[] NONE = new byte[0];
+
+	private final static ReentrantLock lock = new ReentrantLock();
+	private final static Map<String, Asset> cache = new LinkedHashMap<String, Asset>(16, 0.75f, true);
+	private static long size;
+
+	/**
+	 * <p>The modification time of the file.</p>
+	 * @since Descripter 1.0
+	 */
+	public final long stamp;
+	/**
+	 * <p>The length of the file.</p>
+	 * @since Descripter 1.0
+	 */
+	public final long length;
+	/**
+	 * <p>The entity tag of the file.</p>
+	 * @since Descripter 1.0
+	 */
+	public final String etag;
+
+	private final String path;
+	private final String modified;
+	private final byte[] bytes;
+	private byte[] gzip, deflate;
+	private long weight;
+
+	private Asset(String path, long stamp, long length, byte[] bytes) {
+		this.path = path;
+		this.stamp = stamp;
+		this.length = length;
+		this.bytes = bytes;
+		this.etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(stamp) + "\"";
+		this.modified = format().format(new Date(stamp));
+		this.weight = bytes == null ? 0 : bytes.length;
+	}
+
+	private final static SimpleDateFormat format() {
+		SimpleDateFormat f = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+		f.setTimeZone(TimeZone.getTimeZone("GMT"));
+		return f;
+	}
+
+	/**
+	 * <p>Statically gets the current {@link Asset} of a file.</p>
+	 * @param file The {@link File} to serve.
+	 * @return The {@link Asset} of the file as it is now.
+	 * @throws IOException if a small file fails to be read.
+	 * @since Descripter 1.0
+	 */
+	public static final Asset get(File file) throws IOException {
+		String path = file.getAbsolutePath();
+		long stamp = file.lastModified(), length = file.length();
+		lock.lock();
+		try {
+			Asset a = cache.get(path);
+			if (a != null && a.stamp == stamp && a.length == length) {
+				return a;
+			}
+		} finally {
+			lock.unlock();
+		}
+		Asset a = new Asset(path, stamp, length, length > SMALL ? null : read(file, length));
+		lock.lock();
+		try {
+			Asset o = cache.put(path, a);
+			size += a.weight - (o == null ? 0 : o.weight);
+			trim();
+		} finally {
+			lock.unlock();
+		}
+		return a;
+	}
+
+	private static void trim() {
+		for (Iterator<Asset> it = cache.values().iterator(); size > CACHE && it.hasNext();) {
+			size -= it.next().weight;
+			it.remove();
+		}
+	}
+
+	private static byte[] read(File file, long length) throws IOException {
+		byte[] bytes = new byte[(int)length];
+		InputStream is = new FileInputStream(file);
+		try {
+			int n = 0;
+			while (n < bytes.length) {
+				int len = is.read(bytes, n, bytes.length - n);
+				if (len < 0) {
+					return null;
+				}
+				n += len;
+			}
+		} finally {
+			is.close();
+		}
+		return bytes;
+	}
+
+	private String tag(String coding) {
+		return coding == null ? etag : etag.substring(0, etag.length() - 1) + "-" + coding + "\"";
+	}
+
+	/**
+	 * <p>Gets a compressed variant of this file kept in memory, compressing it if necessary.</p>
+	 * @return The compressed bytes or <tt>null</tt> if compressing does not pay.
+	 */
+	private byte[] variant(File file, String coding, boolean disk) throws IOException {
+		lock.lock();
+		try {
+			byte[] v = Compressor.GZIP.equals(coding) ? gzip : deflate;
+			if (v != null) {
+				return v == NONE ? null : v;
+			}
+		} finally {
+			lock.unlock();
+		}
+		byte[] v = null;
+		File gz = disk && Compressor.GZIP.equals(coding) ? new File(file.getPath() + ".gz") : null;
+		if (gz != null && gz.isFile() && gz.lastModified() == stamp && gz.length() <= COMPRESS) {
+			v = read(gz, gz.length());
+		}
+		if (v == null) {
+			byte[] src = bytes != null ? bytes : read(file, length);
+			if (src == null) {
+				return null;
+			}
+			v = Compressor.compress(src, 0, src.length, coding);
+			if (v.length >= length) {
+				v = NONE;
+			} else if (gz != null) {
+				save(gz, v, null);
+			}
+		}
+		lock.lock();
+		try {
+			byte[] o = Compressor.GZIP.equals(coding) ? gzip : deflate;
+			if (o != null) {
+				return o == NONE ? null : o;
+			}
+			if (Compressor.GZIP.equals(coding)) {
+				gzip = v;
+			} else {
+				deflate = v;
+			}
+			weight += v.length;
+			if (cache.get(path) == this) {
+				size += v.length;
+				trim();
+			}
+		} finally {
+			lock.unlock();
+		}
+		return v == NONE ? null : v;
+	}
+
+	/**
+	 * <p>Gets the <tt>gzip</tt> variant of a file too large to compress in memory, compressing it
+	 * to disk if necessary.</p>
+	 * @return The compressed file or <tt>null</tt> if it cannot be written.
+	 */
+	private File variant(File file) {
+		File gz = new File(file.getPath() + ".gz");
+		if (gz.isFile() && gz.lastModified() == stamp) {
+			return gz;
+		}
+		return save(gz, null, file) && gz.lastModified() == stamp ? gz : null;
+	}
+
+	/**
+	 * <p>Writes a <tt>gzip</tt> variant next to a file by way of a temporary file, stamping it with
+	 * the modification time of this asset.</p>
+	 */
+	private boolean save(File gz, byte[] v, File file) {
+		File tmp = null;
+		try {
+			tmp = File.createTempFile(gz.getName(), ".tmp", gz.getParentFile());
+			OutputStream os = new FileOutputStream(tmp);
+			try {
+				if (v != null) {
+					os.write(v);
+				} else {
+					OutputStream zos = Compressor.wrap(os, Compressor.GZIP);
+					InputStream is = new FileInputStream(file);
+					try {
+						byte[] buf = new byte[Output.BUFFER];
+						int len;
+						while ((len = is.read(buf)) > 0) {
+							zos.write(buf, 0, len);
+						}
+					} finally {
+						is.close();
+					}
+					zos.close();
+				}
+			} finally {
+				os.close();
+			}
+			tmp.setLastModified(stamp);
+			if (!tmp.renameTo(gz)) {
+				gz.delete();
+				if (!tmp.renameTo(gz)) {
+					tmp.delete();
+					return false;
+				}
+			}
+			return true;
+		} catch (IOException e) {
+			if (tmp != null) {
+				tmp.delete();
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * <p>Tells if a request is conditioned on a version of this file that is still current.</p>
+	 * @param headers The request headers.
+	 * @return <tt>true</tt> if the file has not been modified since; <tt>false</tt>, otherwise.
+	 * @since Descripter 1.0
+	 */
+	public boolean unmodified(Headers headers) {
+		String match = headers.getFirst("If-None-Match");
+		if (match != null) {
+			for (String tag : match.split(",")) {
+				tag = tag.trim();
+				if (tag.startsWith("W/")) {
+					tag = tag.substring(2);
+				}
+				if (tag.equals("*") || tag.equals(etag) ||
+						tag.equals(tag(Compressor.GZIP)) || tag.equals(tag(Compressor.DEFLATE))) {
+					return true;
+				}
+			}
+			return false;
+		}
+		String since = headers.getFirst("If-Modified-Since");
+		if (since != null) {
+			try {
+				return stamp / 1000 <= format().parse(since).getTime() / 1000;
+			} catch (ParseException e) {
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * <p>Responds to an exchange with this file.</p>
+	 * @param xchg The {@link HttpExchange} to respond to.
+	 * @param file The {@link File} of this asset.
+	 * @param type The MIME type of the file or <tt>null</tt> for none.
+	 * @throws IOException if the response fails to be sent.
+	 * @since Descripter 1.0
+	 */
+	public void serve(HttpExchange xchg, File file, String type) throws IOException {
+		serve(xchg, file, type, false, false);
+	}
+
+	/**
+	 * <p>Responds to an exchange with this file, compressed if the client accepts it.</p>
+	 * <p>A request for a byte <tt>Range</tt> is always answered with the file as it is.</p>
+	 * @param xchg The {@link HttpExchange} to respond to.
+	 * @param file The {@link File} of this asset.
+	 * @param type The MIME type of the file or <tt>null</tt> for none.
+	 * @param compress <tt>true</tt> to compress text files; <tt>false</tt>, otherwise.
+	 * @param disk <tt>true</tt> to keep <tt>gzip</tt> variants on disk next to the file; <tt>false</tt>, otherwise.
+	 * @throws IOException if the response fails to be sent.
+	 * @since Descripter 1.0
+	 */
+	public void serve(HttpExchange xchg, File file, String type, boolean compress, boolean disk) throws IOException {
+		Headers in = xchg.getRequestHeaders(), out = xchg.getResponseHeaders();
+		String coding = null;
+		byte[] packed = null;
+		File gz = null;
+		if (compress && length >= Compressor.MIN && Compressor.compressible(type)) {
+			out.set("Vary", "Accept-Encoding");
+			coding = in.getFirst("Range") == null ? Compressor.accept(in) : null;
+			if (coding == null) {
+			} else if (length <= COMPRESS) {
+				packed = variant(file, coding, disk);
+			} else if (disk && Compressor.GZIP.equals(coding)) {
+				gz = variant(file);
+			}
+			if (packed == null && gz == null) {
+				coding = null;
+			}
+		}
+		out.set("Last-Modified", modified);
+		out.set("ETag", tag(coding));
+		out.set("Accept-Ranges", "bytes");
+		if (unmodified(in)) {
+			xchg.sendResponseHeaders(304, -1);
+			xchg.close();
+			return;
+		}
+		if (type != null) {
+			out.set("Content-Type", type);
+		}
+		if (coding != null) {
+			out.set("Content-Encoding", coding);
+			if (packed != null) {
+				xchg.sendResponseHeaders(200, packed.length);
+				OutputStream os = xchg.getResponseBody();
+				try {
+					os.write(packed);
+				} finally {
+					os.close();
+				}
+			} else {
+				transfer(xchg, gz, 0, gz.length(), 200);
+			}
+			return;
+		}
+		long from = 0, count = length;
+		boolean partial = false;
+		String range = in.getFirst("Range");
+		String cond = in.getFirst("If-Range");
+		if (range != null && (cond == null || cond.equals(etag) || cond.equals(modified))) {
+			long[] r = range(range);
+			if (r == null) {
+				out.set("Content-Range", "bytes */" + length);
+				xchg.sendResponseHeaders(416, -1);
+				xchg.close();
+				return;
+			} else if (r.length > 0) {
+				from = r[0];
+				count = r[1] - r[0] + 1;
+				partial = true;
+				out.set("Content-Range", "bytes " + r[0] + "-" + r[1] + "/" + length);
+			}
+		}
+		if (bytes == null) {
+			transfer(xchg, file, from, count, partial ? 206 : 200);
+			return;
+		}
+		xchg.sendResponseHeaders(partial ? 206 : 200, count > 0 ? count : -1);
+		OutputStream os = xchg.getResponseBody();
+		try {
+			if (count > 0) {
+				os.write(bytes, (int)from, (int)count);
+			}
+		} finally {
+			os.close();
+		}
+	}
+
+	private static void transfer(HttpExchange xchg, File file, long from, long count, int code) throws IOException {
+		xchg.sendResponseHeaders(code, count > 0 ? count : -1);
+		OutputStream os = xchg.getResponseBody();
+		try {
+			if (count > 0) {
+				FileInputStream fis = new FileInputStream(file);
+				try {
+					FileChannel fc = fis.getChannel();
+					WritableByteChannel wc = Channels.newChannel(os);
+					while (count > 0) {
+						long n = fc.transferTo(from, count, wc);
+						if (n <= 0) {
+							break;
+						}
+						from += n;
+						count -= n;
+					}
+				} finally {
+					fis.close();
+				}
+			}
+		} finally {
+			os.close();
+		}
+	}
+
+	/**
+	 * <p>Parses a <tt>Range</tt> header against the length of this file.</p>
+	 * @return The first and last positions of a satisfiable single byte range, an empty array to
+	 * send the whole file, or <tt>null</tt> if the range cannot be satisfied.
+	 */
+	private long[] range(String range) {
+		if (!range.startsWith("bytes=") || range.indexOf(',') >= 0) {
+			return new long[0];
+		}
+		String spec = range.substring(6).trim();
+		int dash = spec.indexOf('-');
+		if (dash < 0) {
+			return new long[0];
+		}
+		try {
+			long first, last;
+			if (dash == 0) {
+				long suffix = Long.parseLong(spec.substring(1));
+				if (suffix <= 0) {
+					return null;
+				}
+				first = Math.max(length - suffix, 0);
+				last = length - 1;
+			} else {
+				first = Long.parseLong(spec.substring(0, dash));
+				last = dash == spec.length() - 1 ? length - 1 : Long.parseLong(spec.substring(dash + 1));
+				last = Math.min(last, length - 1);
+			}
+			if (first > last || first >= length) {
+				return null;
+			}
+			return new long[] { first, last };
+		} catch (NumberFormatException e) {
+			return new long[0];
+		}
+	}
+}
@@ -0,0 +1,353 @@
+
+/*
+ *  Descripter 1.0 - Java Script Engines
+ *  Copyright (C) 2010-2015  Jianjun Liu (J.J.Liu)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.descripter.js.ss;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+import org.descripter.js.Descripter;
+import org.descripter.js.Interpreter;
+import org.descripter.js.Memory;
+import org.descripter.js.Program;
+import org.descripter.js.Visitor;
+import org.descripter.js.api.Context;
+import org.descripter.js.api.Core;
+import org.descripter.js.api.For;
+import org.descripter.js.api.Function;
+import org.descripter.js.api.Functor;
+import org.descripter.js.api.Global;
+import org.descripter.js.api.Key;
+import org.descripter.js.api.Objective;
+import org.descripter.js.api.Script;
+import org.descripter.js.api.Site;
+import org.descripter.js.api.Var;
+import org.descripter.js.api.With;
+
+/**
+ * <p>Keeps the bytecode of compiled executables in a directory across restarts.</p>
+ * <p>An entry is keyed by a hash of the script source together with the {@link #BUILD} of the
+ * descripter, and holds the classes compiled from the source. Each entry ends with a checksum, so a
+ * corrupt entry or one written by another build is detected on loading and evicted.</p>
+ * <p>Since the entries are loaded as code, the directory is created readable and writable by its
+ * owner only, and a cache whose directory is a link, is owned by another user or is writable by
+ * others is never read or written.</p>
+ *
+ * @author <a href="mailto:jianjunliu@126.com">J.J.Liu (Jianjun Liu)</a> at <a href="http://www.descripter.org" target="_blank">http://www.descripter.org</a>
+ * @since Descripter 1.0
+ */
+public class Cache
+{
+	private final static int MAGIC = 0xDE5C0DE5;
+	private final static String SUFFIX = ".jsc";
+
+	/**
+	 * <p>The fingerprint of the classes that descript scripts and run the descripted code.</p>
+	 * <p>It is a hash of their bytecode, so that entries compiled by any other build are no longer
+	 * reused.</p>
+	 * @since Descripter 1.0
+	 */
+	public final static String BUILD = build(
+			Descripter.class, Visitor.class, Interpreter.class, Program.class, Memory.class,
+			Scriptizer.class, Executable.class, Context.class, Objective.class, Script.class,
+			Global.class, Core.class, Functor.class, Function.class, For.class, With.class,
+			Var.class, Site.class, Key.class
+	);
+
+	private volatile Boolean secure;
+
+	/**
+	 * <p>The directory of the cache.</p>
+	 * @since Descripter 1.0
+	 */
+	public final File dir;
+
+	/**
+	 * <p>Constructs a cache of this type.</p>
+	 * @param dir The directory of the cache, created when the first entry is saved.
+	 * @since Descripter 1.0
+	 */
+	public Cache(File dir) {
+		this.dir = dir;
+	}
+
+	/**
+	 * <p>Computes the key of a script source.</p>
+	 * @param jssp <tt>true</tt> if the source is a JavaScript Server Page; <tt>false</tt>, otherwise.
+	 * @param source The script source.
+	 * @return The hexadecimal key of the source.
+	 * @since Descripter 1.0
+	 */
+	public static String key(boolean jssp, String source) {
+		MessageDigest md = digest();
+		try {
+			md.update((BUILD + (jssp ? "\njssp\n" : "\njs\n")).getBytes("UTF-8"));
+			md.update(source.getBytes("UTF-8"));
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		return hex(md.digest());
+	}
+
+	private static MessageDigest digest() {
+		try {
+			return MessageDigest.getInstance("SHA-1");
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static String hex(byte[] ba) {
+		StringBuilder sb = new StringBuilder();
+		for (byte b : ba) {
+			sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+			sb.append(Character.forDigit(b & 0xF, 16));
+		}
+		return sb.toString();
+	}
+
+	private static String build(Class<?> ...classes) {
+		MessageDigest md = digest();
+		byte[] buf = new byte[4096];
+		for (Class<?> c : classes) {
+			InputStream is = c.getResourceAsStream(c.getSimpleName() + ".class");
+			if (is == null) {
+				throw new IllegalStateException("no bytecode for " + c.getName());
+			}
+			try {
+				try {
+					int len;
+					while ((len = is.read(buf)) > 0) {
+						md.update(buf, 0, len);
+					}
+				} finally {
+					is.close();
+				}
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+		return hex(md.digest());
+	}
+
+	/**
+	 * <p>Tells if the directory of this cache is private to the current user, creating it if it is
+	 * missing.</p>
+	 * <p>The outcome is checked once; an insecure directory is reported and ignored afterwards.</p>
+	 * @return <tt>true</tt> if entries may be loaded from and saved to the directory; <tt>false</tt>,
+	 * otherwise.
+	 * @since Descripter 1.0
+	 */
+	public boolean secure() {
+		Boolean b = secure;
+		if (b == null) {
+			try {
+				b = check(dir.toPath());
+			} catch (IOException e) {
+				b = false;
+			} catch (RuntimeException e) {
+				b = false;
+			}
+			if (!b) {
+				System.err.println("Ignoring the cache in " + dir + ", which is not private to " + 
+						System.getProperty("user.name"));
+			}
+			secure = b;
+		}
+		return b;
+	}
+
+	private static boolean check(Path path) throws IOException {
+		boolean posix = Files.getFileAttributeView(path.getParent() != null ? path.getParent() : path,
+				PosixFileAttributeView.class) != null;
+		if (!Files.exists(path, LinkOption.NOFOLLOW_LINKS)) {
+			if (posix) {
+				Files.createDirectories(path,
+						PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+			} else {
+				Files.createDirectories(path);
+				File f = path.toFile();
+				f.setReadable(false, false);
+				f.setWritable(false, false);
+				f.setExecutable(false, false);
+				f.setReadable(true, true);
+				f.setWritable(true, true);
+				f.setExecutable(true, true);
+			}
+		}
+		if (!Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+			return false;
+		}
+		UserPrincipal owner = Files.getOwner(path, LinkOption.NOFOLLOW_LINKS);
+		UserPrincipal user = path.getFileSystem().getUserPrincipalLookupService()
+				.lookupPrincipalByName(System.getProperty("user.name"));
+		if (!owner.equals(user)) {
+			return false;
+		}
+		if (posix) {
+			Set<PosixFilePermission> perms = Files.getPosixFilePermissions(path, LinkOption.NOFOLLOW_LINKS);
+			if (perms.contains(PosixFilePermission.GROUP_WRITE) ||
+					perms.contains(PosixFilePermission.OTHERS_WRITE)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private final File file(String key) {
+		return new File(dir, key + SUFFIX);
+	}
+
+	/**
+	 * <p>Loads the classes of an entry.</p>
+	 * @param key The key of the entry.
+	 * @return A map from class names to bytecode, or <tt>null</tt> if the entry is missing, corrupt
+	 * or stale, in which case it is evicted.
+	 * @since Descripter 1.0
+	 */
+	public Map<String, byte[]> load(String key) {
+		File file = file(key);
+		if (!file.isFile() || !secure()) {
+			return null;
+		}
+		try {
+			byte[] ba = read(file);
+			if (ba.length < 8) {
+				throw new IOException(file.getPath());
+			}
+			CRC32 crc = new CRC32();
+			crc.update(ba, 0, ba.length - 8);
+			DataInputStream in = new DataInputStream(new ByteArrayInputStream(ba));
+			if (in.readInt() != MAGIC || !BUILD.equals(in.readUTF())) {
+				throw new IOException(file.getPath());
+			}
+			Map<String, byte[]> classes = new LinkedHashMap<String, byte[]>();
+			for (int n = in.readInt(); n > 0; n--) {
+				String name = in.readUTF();
+				byte[] code = new byte[in.readInt()];
+				in.readFully(code);
+				classes.put(name, code);
+			}
+			if (in.readLong() != crc.getValue() || in.available() > 0 || classes.isEmpty()) {
+				throw new IOException(file.getPath());
+			}
+			return classes;
+		} catch (IOException e) {
+			evict(key);
+			return null;
+		} catch (RuntimeException e) {
+			evict(key);
+			return null;
+		}
+	}
+
+	/**
+	 * <p>Saves the classes of an entry.</p>
+	 * <p>The entry is written to a temporary file and then renamed, so that a crash never leaves
+	 * a partial entry behind. Failures to write are ignored, and so is an insecure directory.</p>
+	 * @param key The key of the entry.
+	 * @param classes A map from class names to bytecode.
+	 * @since Descripter 1.0
+	 */
+	public void save(String key, Map<String, byte[]> classes) {
+		if (classes == null || classes.isEmpty()) {
+			return;
+		}
+		try {
+			ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(baos);
+			out.writeInt(MAGIC);
+			out.writeUTF(BUILD);
+			out.writeInt(classes.size());
+			for (Map.Entry<String, byte[]> e : classes.entrySet()) {
+				out.writeUTF(e.getKey());
+				out.writeInt(e.getValue().length);
+				out.write(e.getValue());
+			}
+			out.flush();
+			CRC32 crc = new CRC32();
+			crc.update(baos.toByteArray());
+			out.writeLong(crc.getValue());
+			out.flush();
+			if (!secure()) {
+				return;
+			}
+			File tmp = File.createTempFile(key, ".tmp", dir);
+			OutputStream os = new FileOutputStream(tmp);
+			try {
+				baos.writeTo(os);
+			} finally {
+				os.close();
+			}
+			File file = file(key);
+			if (!tmp.renameTo(file)) {
+				file.delete();
+				if (!tmp.renameTo(file)) {
+					tmp.delete();
+				}
+			}
+		} catch (IOException e) {
+		}
+	}
+
+	/**
+	 * <p>Evicts an entry.</p>
+	 * @param key The key of the entry.
+	 * @since Descripter 1.0
+	 */
+	public void evict(String key) {
+		file(key).delete();
+	}
+
+	private static byte[] read(File file) throws IOException {
+		InputStream is = new FileInputStream(file);
+		try {
+			ByteArrayOutputStream baos = new ByteArrayOutputStream((int)file.length());
+			byte[] buf = new byte[4096];
+			int len;
+			while ((len = is.read(buf)) > 0) {
+				baos.write(buf, 0, len);
+			}
+			return baos.toByteArray();
+		} finally {
+			is.close();
+		}
+	}
+}
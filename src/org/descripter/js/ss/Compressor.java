@@ -0,0 +1,152 @@
+
+/*
+ *  Descripter 1.0 - Java Script Engines
+ *  Copyright (C) 2010-2015  Jianjun Liu (J.J.Liu)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.descripter.js.ss;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.sun.net.httpserver.Headers;
+
+/**
+ * <p>Negotiates and applies the content codings of <tt>HTTP Response</tt>s.</p>
+ *
+ * @author <a href="mailto:jianjunliu@126.com">J.J.Liu (Jianjun Liu)</a> at <a href="http://www.descripter.org" target="_blank">http://www.descripter.org</a>
+ * @since Descripter 1.0
+ */
+public final class Compressor
+{
+	/**
+	 * <p>The <tt>gzip</tt> content coding.</p>
+	 * @since Descripter 1.0
+	 */
+	public final static String GZIP = "gzip";
+	/**
+	 * <p>The <tt>deflate</tt> content coding.</p>
+	 * @since Descripter 1.0
+	 */
+	public final static String DEFLATE = "deflate";
+	/**
+	 * <p>The minimum size of a response worth compressing.</p>
+	 * @since Descripter 1.0
+	 */
+	public final static int MIN = 256;
+
+	private Compressor() {
+	}
+
+	/**
+	 * <p>Chooses a content coding accepted by a request.</p>
+	 * <p>Of the codings the request accepts, the one with the highest quality value is chosen, 
+	 * preferring {@link #GZIP} on ties. A coding named explicitly takes its quality value from 
+	 * its own entry; <tt>*</tt> only applies to the codings not named.</p>
+	 * @param headers The request headers.
+	 * @return {@link #GZIP}, {@link #DEFLATE} or <tt>null</tt> if the request accepts neither.
+	 * @since Descripter 1.0
+	 */
+	public static String accept(Headers headers) {
+		String accept = headers.getFirst("Accept-Encoding");
+		if (accept == null) {
+			return null;
+		}
+		double gzip = -1, deflate = -1, any = -1;
+		for (String coding : accept.toLowerCase().split(",")) {
+			String[] parts = coding.split(";");
+			String name = parts[0].trim();
+			double q = 1;
+			for (int i = 1; i < parts.length; i++) {
+				String p = parts[i].trim();
+				if (p.startsWith("q=")) {
+					try {
+						q = Double.parseDouble(p.substring(2));
+					} catch (NumberFormatException e) {
+						q = 0;
+					}
+				}
+			}
+			if (name.equals(GZIP) || name.equals("x-gzip")) {
+				gzip = Math.max(gzip, q);
+			} else if (name.equals(DEFLATE)) {
+				deflate = Math.max(deflate, q);
+			} else if (name.equals("*")) {
+				any = Math.max(any, q);
+			}
+		}
+		if (gzip < 0) {
+			gzip = any;
+		}
+		if (deflate < 0) {
+			deflate = any;
+		}
+		if (gzip > 0 && gzip >= deflate) {
+			return GZIP;
+		}
+		return deflate > 0 ? DEFLATE : null;
+	}
+
+	/**
+	 * <p>Tells if content of a MIME type is worth compressing.</p>
+	 * @param type A MIME type or <tt>null</tt>.
+	 * @return <tt>true</tt> for text types; <tt>false</tt>, for already compressed or unknown ones.
+	 * @since Descripter 1.0
+	 */
+	public static boolean compressible(String type) {
+		if (type == null) {
+			return false;
+		}
+		return type.startsWith("text/") || type.startsWith("application/javascript") ||
+			type.startsWith("application/json") || type.endsWith("xml") || type.startsWith("image/svg");
+	}
+
+	/**
+	 * <p>Wraps an output stream to compress what is written to it.</p>
+	 * @param os The {@link OutputStream} to write the compressed content to.
+	 * @param coding {@link #GZIP} or {@link #DEFLATE}.
+	 * @return The compressing {@link OutputStream}.
+	 * @throws IOException if the stream fails to be written.
+	 * @since Descripter 1.0
+	 */
+	public static OutputStream wrap(OutputStream os, String coding) throws IOException {
+		return GZIP.equals(coding) ? new GZIPOutputStream(os, 8192, true) : new DeflaterOutputStream(os, true);
+	}
+
+	/**
+	 * <p>Compresses a range of bytes.</p>
+	 * @param b The bytes to compress.
+	 * @param off The offset of the first byte.
+	 * @param len The number of bytes.
+	 * @param coding {@link #GZIP} or {@link #DEFLATE}.
+	 * @return The compressed bytes.
+	 * @since Descripter 1.0
+	 */
+	public static byte[] compress(byte[] b, int off, int len, String coding) {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream(len / 3 + 64);
+		try {
+			OutputStream os = wrap(baos, coding);
+			os.write(b, off, len);
+			os.close();
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		return baos.toByteArray();
+	}
+}
@@ -19,8 +19,26 @@
 
 package org.descripter.js.ss;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
 
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
@@ -82,21 +100,423 @@ public class Daemon extends Core
 	 */
 	@Override
 	public void run() {
+		Executor executor = virtual ? threads() : null;
+		if (executor == null) {
+			executor = pool();
+		}
+		if (watch) {
+			try {
+				Executable.watch(new File(root));
+			} catch (IOException e) {
+				System.err.println("Not watching " + root + ", checking modification times instead: " + e);
+			}
+		}
 		try {
 			HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
 			server.createContext(cntx, new HttpHandler(){
 				@Override
 				public void handle(HttpExchange xchg) throws IOException {
-					new Thread(
-							new Scriptlet<Daemon>(Daemon.this, xchg)
-					).run();
+					if (overloaded.get() != null) {
+						xchg.getResponseHeaders().add("Retry-After", "1");
+						xchg.sendResponseHeaders(503, -1);
+						xchg.close();
+						return;
+					}
+					new Scriptlet<Daemon>(Daemon.this, xchg).run();
 				}});
+			server.setExecutor(executor);
 			server.start();
 		} catch (IOException e) {
 			e.printStackTrace();
+			return;
+		}
+		if (warm) {
+			Thread t = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					precompile();
+				}
+			}, "Descripter precompiler");
+			t.setDaemon(true);
+			t.start();
+		}
+	}
+
+	private volatile Cache cache;
+
+	/**
+	 * <p>Gets the {@link Cache} of the compiled scriptlets and server pages of this daemon.</p>
+	 * @return The {@link Cache} or <tt>null</tt> if compiled classes are not cached.
+	 * @since Descripter 1.0
+	 */
+	public final Cache cache() {
+		return cache;
+	}
+
+	/**
+	 * <p>Sets the {@link Cache} of the compiled scriptlets and server pages of this daemon.</p>
+	 * <p>With a cache, compiled classes are loaded without descripting or compiling after a restart. 
+	 * Since its entries are run as code, the cache should be in a directory private to the user 
+	 * running the daemon, which {@link Cache} checks before using it. It is off by default.</p>
+	 * @param cache A {@link Cache} or <tt>null</tt> to disable caching.
+	 * @since Descripter 1.0
+	 */
+	public final void cache(Cache cache) {
+		this.cache = cache;
+	}
+
+	/**
+	 * <p>The default number of worker threads of a daemon.</p>
+	 * @see #workers(int)
+	 * @since Descripter 1.0
+	 */
+	public final static int WORKERS = Math.max(Runtime.getRuntime().availableProcessors(), 1) * 4;
+	/**
+	 * <p>The default maximum number of requests queued for the worker threads of a daemon.</p>
+	 * @see #backlog(int)
+	 * @since Descripter 1.0
+	 */
+	public final static int BACKLOG = 256;
+
+	private final static ThreadLocal<Boolean> overloaded = new ThreadLocal<Boolean>();
+	private final AtomicLong rejected = new AtomicLong();
+	private volatile int workers = WORKERS, backlog = BACKLOG;
+	private final AtomicInteger running = new AtomicInteger();
+	private final AtomicLong finished = new AtomicLong();
+	private volatile ThreadPoolExecutor pool;
+	private volatile boolean virtual;
+
+	/**
+	 * <p>Tells if this daemon runs each request on its own virtual thread.</p>
+	 * @return <tt>true</tt> for virtual threads; <tt>false</tt>, for a pool of worker threads.
+	 * @since Descripter 1.0
+	 */
+	public final boolean virtual() {
+		return virtual;
+	}
+
+	/**
+	 * <p>Sets this daemon to run each request on its own virtual thread or not.</p>
+	 * <p>It takes effect when the daemon {@link #run() runs}. With virtual threads, at most 
+	 * {@link #workers()} plus {@link #backlog()} requests run at the same time, and the others 
+	 * are answered with <tt>503 Service Unavailable</tt>. If the Java runtime has no virtual threads, 
+	 * the daemon falls back to a pool of worker threads and this mode is turned off.</p>
+	 * @param virtual <tt>true</tt> for virtual threads; <tt>false</tt>, for a pool of worker threads.
+	 * @since Descripter 1.0
+	 */
+	public final void virtual(boolean virtual) {
+		this.virtual = virtual;
+	}
+
+	/**
+	 * <p>Gets the number of worker threads that execute requests.</p>
+	 * @return The number of worker threads.
+	 * @since Descripter 1.0
+	 */
+	public final int workers() {
+		return workers;
+	}
+
+	/**
+	 * <p>Sets the number of worker threads that execute requests.</p>
+	 * <p>It takes effect when the daemon {@link #run() runs}.</p>
+	 * @param workers The number of worker threads, at least one.
+	 * @since Descripter 1.0
+	 */
+	public final void workers(int workers) {
+		if (workers < 1) {
+			throw new IllegalArgumentException(String.valueOf(workers));
+		}
+		this.workers = workers;
+	}
+
+	/**
+	 * <p>Gets the maximum number of requests queued while all the worker threads are busy.</p>
+	 * @return The maximum number of queued requests.
+	 * @since Descripter 1.0
+	 */
+	public final int backlog() {
+		return backlog;
+	}
+
+	/**
+	 * <p>Sets the maximum number of requests queued while all the worker threads are busy.</p>
+	 * <p>It takes effect when the daemon {@link #run() runs}. A request that arrives when the queue 
+	 * is full is answered with <tt>503 Service Unavailable</tt> by the dispatcher thread of the server.</p>
+	 * @param backlog The maximum number of queued requests, at least one.
+	 * @since Descripter 1.0
+	 */
+	public final void backlog(int backlog) {
+		if (backlog < 1) {
+			throw new IllegalArgumentException(String.valueOf(backlog));
+		}
+		this.backlog = backlog;
+	}
+
+	private final Executor pool() {
+		pool = new ThreadPoolExecutor(
+				workers,
+				workers,
+				0L,
+				TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<Runnable>(backlog),
+				new ThreadFactory() {
+					private final AtomicInteger next = new AtomicInteger();
+
+					@Override
+					public Thread newThread(Runnable r) {
+						return new Thread(r, "Descripter Worker " + next.incrementAndGet());
+					}
+				},
+				new RejectedExecutionHandler() {
+					@Override
+					public void rejectedExecution(Runnable r, ThreadPoolExecutor e) {
+						overload(r);
+					}
+				}
+		);
+		return pool;
+	}
+
+	private final Executor threads() {
+		final ExecutorService threads;
+		try {
+			threads = (ExecutorService)Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (Exception e) {
+			System.out.println("Virtual threads are not available; using " + workers + " worker threads.");
+			virtual = false;
+			return null;
+		}
+		final Semaphore admitted = new Semaphore(workers + backlog);
+		return new Executor() {
+			@Override
+			public void execute(final Runnable r) {
+				if (!admitted.tryAcquire()) {
+					overload(r);
+					return;
+				}
+				running.incrementAndGet();
+				threads.execute(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							r.run();
+						} finally {
+							running.decrementAndGet();
+							finished.incrementAndGet();
+							admitted.release();
+						}
+					}
+				});
+			}
+		};
+	}
+
+	private final void overload(Runnable r) {
+		rejected.incrementAndGet();
+		overloaded.set(Boolean.TRUE);
+		try {
+			r.run();
+		} finally {
+			overloaded.remove();
+		}
+	}
+
+	/**
+	 * <p>Gets the number of requests waiting for a worker thread.</p>
+	 * @return The number of queued requests.
+	 * @since Descripter 1.0
+	 */
+	public final int queued() {
+		ThreadPoolExecutor e = pool;
+		return e == null ? 0 : e.getQueue().size();
+	}
+
+	/**
+	 * <p>Gets the approximate number of worker or virtual threads that are executing requests.</p>
+	 * @return The number of active threads.
+	 * @since Descripter 1.0
+	 */
+	public final int active() {
+		ThreadPoolExecutor e = pool;
+		return e == null ? running.get() : e.getActiveCount();
+	}
+
+	/**
+	 * <p>Gets the approximate number of requests executed by the worker or virtual threads.</p>
+	 * @return The number of completed requests.
+	 * @since Descripter 1.0
+	 */
+	public final long completed() {
+		ThreadPoolExecutor e = pool;
+		return e == null ? finished.get() : e.getCompletedTaskCount();
+	}
+
+	/**
+	 * <p>Gets the number of requests rejected with <tt>503 Service Unavailable</tt>.</p>
+	 * @return The number of rejected requests.
+	 * @since Descripter 1.0
+	 */
+	public final long rejected() {
+		return rejected.get();
+	}
+
+	private volatile boolean stream;
+
+	/**
+	 * <p>Tells if this daemon streams the output of scriptlets and server pages.</p>
+	 * @return <tt>true</tt> if the output is streamed; <tt>false</tt>, if it is buffered in 
+	 * the <tt>Response</tt> array.
+	 * @since Descripter 1.0
+	 */
+	public final boolean stream() {
+		return stream;
+	}
+
+	/**
+	 * <p>Sets this daemon to stream the output of scriptlets and server pages or not.</p>
+	 * <p>In streaming mode, <tt>Response</tt> is an {@link Output} instead of an array, and printed 
+	 * output is encoded into a pooled buffer and sent in chunks once the buffer is full.</p>
+	 * @param stream <tt>true</tt> to stream the output; <tt>false</tt>, to buffer it.
+	 * @see Output
+	 * @since Descripter 1.0
+	 */
+	public final void stream(boolean stream) {
+		this.stream = stream;
+	}
+
+	private volatile boolean compress = true;
+
+	/**
+	 * <p>Tells if this daemon compresses its responses for clients that accept it.</p>
+	 * @return <tt>true</tt> if responses are compressed; <tt>false</tt>, otherwise.
+	 * @since Descripter 1.0
+	 */
+	public final boolean compress() {
+		return compress;
+	}
+
+	/**
+	 * <p>Sets this daemon to compress its responses for clients that accept it or not.</p>
+	 * <p>Script output and text files are sent with <tt>gzip</tt> or <tt>deflate</tt> content 
+	 * coding, whichever the client prefers. Compressed files are kept in memory until they are 
+	 * modified. It is on by default.</p>
+	 * @param compress <tt>true</tt> to compress responses; <tt>false</tt>, otherwise.
+	 * @see Compressor
+	 * @since Descripter 1.0
+	 */
+	public final void compress(boolean compress) {
+		this.compress = compress;
+	}
+
+	private volatile boolean precompress;
+
+	/**
+	 * <p>Tells if this daemon keeps compressed text files on disk next to the files.</p>
+	 * @return <tt>true</tt> if compressed files are kept on disk; <tt>false</tt>, otherwise.
+	 * @since Descripter 1.0
+	 */
+	public final boolean precompress() {
+		return precompress;
+	}
+
+	/**
+	 * <p>Sets this daemon to keep compressed text files on disk next to the files or not.</p>
+	 * <p>A file compressed with <tt>gzip</tt> is written with a <tt>.gz</tt> suffix and the same 
+	 * modification time as the file, so that it survives restarts until the file is modified. It 
+	 * also allows files too large to be compressed in memory to be compressed. It is off by 
+	 * default, since it writes to the root path.</p>
+	 * @param precompress <tt>true</tt> to keep compressed files on disk; <tt>false</tt>, otherwise.
+	 * @see Asset
+	 * @since Descripter 1.0
+	 */
+	public final void precompress(boolean precompress) {
+		this.precompress = precompress;
+	}
+
+	private volatile boolean watch = true;
+
+	/**
+	 * <p>Tells if this daemon watches its root path for modified and deleted scripts.</p>
+	 * @return <tt>true</tt> if the root path is watched; <tt>false</tt>, if the modification time 
+	 * of a script is checked on every request.
+	 * @since Descripter 1.0
+	 */
+	public final boolean watch() {
+		return watch;
+	}
+
+	/**
+	 * <p>Sets this daemon to watch its root path for modified and deleted scripts or not.</p>
+	 * <p>It takes effect when the daemon {@link #run() runs}, and is on by default. If the root path 
+	 * cannot be watched, the modification time of a script is checked on every request instead.</p>
+	 * @param watch <tt>true</tt> to watch the root path; <tt>false</tt>, otherwise.
+	 * @see Executable#watch(File)
+	 * @since Descripter 1.0
+	 */
+	public final void watch(boolean watch) {
+		this.watch = watch;
+	}
+
+	private volatile boolean warm;
+
+	/**
+	 * <p>Tells if this daemon precompiles its root path in the background when it runs.</p>
+	 * @return <tt>true</tt> if the root path is precompiled; <tt>false</tt>, if scripts are compiled 
+	 * when they are first requested.
+	 * @since Descripter 1.0
+	 */
+	public final boolean warm() {
+		return warm;
+	}
+
+	/**
+	 * <p>Sets this daemon to precompile its root path in the background when it runs or not.</p>
+	 * <p>The daemon serves requests while it precompiles, and a failing file does not stop the others. 
+	 * It is off by default, since it descripts every script under the root path.</p>
+	 * @param warm <tt>true</tt> to precompile the root path; <tt>false</tt>, otherwise.
+	 * @see #precompile()
+	 * @since Descripter 1.0
+	 */
+	public final void warm(boolean warm) {
+		this.warm = warm;
+	}
+
+	/**
+	 * <p>Descripts and compiles all the scriptlets and server pages under the root path in 
+	 * one compilation task.</p>
+	 * <p>This method prints the paths of the files that failed to be read, descripted, compiled or 
+	 * loaded along with their diagnostics. Those files are compiled again when they are requested.</p>
+	 * @see Executable#compile(Scriptlet, Iterable)
+	 * @since Descripter 1.0
+	 */
+	public void precompile() {
+		Map<String, List<Diagnostic<? extends JavaFileObject>>> failed = Executable.compile(
+				new Scriptlet<Daemon>(this, null),
+				sources(new File(root), new ArrayList<File>())
+		);
+		for (Map.Entry<String, List<Diagnostic<? extends JavaFileObject>>> e : failed.entrySet()) {
+			System.out.println(e.getKey());
+			for (Diagnostic<? extends JavaFileObject> d : e.getValue()) {
+				System.out.println(d);
+			}
 		}
 	}
 
+	private final static List<File> sources(File dir, List<File> list) {
+		File[] files = dir.listFiles();
+		if (files != null) {
+			for (File f : files) {
+				if (f.isDirectory()) {
+					sources(f, list);
+				} else if (f.getName().endsWith(".js") || f.getName().endsWith(".jssp")) {
+					list.add(f);
+				}
+			}
+		}
+		return list;
+	}
+
 	/**
 	 * <p>The runtime {@link Key} for the <tt>Request</tt> identifier or property.</p>
 	 * @since Descripter 1.0
@@ -132,7 +552,8 @@ public class Daemon extends Core
 
 	/**
 	 * <p>A native global service for <tt>HTTP Response</tt> output.</p>
-	 * <p>This method prints the elements of <tt>args</tt> to <tt>HTTP Response</tt> in HTML lines.</p>
+	 * <p>This method prints the elements of <tt>args</tt> to <tt>HTTP Response</tt> in HTML lines. 
+	 * In {@link #stream(boolean) streaming} mode, they are written to the {@link Output} of the response.</p>
 	 * @param script The script context that invoked this function
 	 * @param args An array of the arguments passed by the invocation
 	 * @see Core#_print
@@ -141,7 +562,18 @@ public class Daemon extends Core
 	 */
 	@Override
 	public void print(Script<?> script, Object ...args) {
-		CArray r = getResponse(script);
+		Object o = script.get(_Response);
+		if (o instanceof Output) {
+			Output out = (Output)o;
+			try {
+				out.print(array(args).join(""));
+				out.print("\r\n");
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+			return;
+		}
+		CArray r = (CArray)o;
 		r.push(array(args));
 		r.put(r.length(), "\r\n");
 	}
@@ -23,11 +23,46 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
 
 import org.descripter.js.Descripter;
+import org.descripter.js.Interpreter;
 import org.descripter.js.Memory;
+import org.descripter.js.Program;
+import org.descripter.js.parse.ParseException;
 
 /**
  * <p>Manages descripted and compiled executables for the server-side scriptlet and pages.</p>
@@ -83,12 +118,33 @@ public class Executable
 		return stamp >= file.lastModified();
 	}
 
-	private static final Map<String, Executable> map = new HashMap<String, Executable>();
+	private static final Map<String, Executable> map = new ConcurrentHashMap<String, Executable>();
+	private static final ConcurrentMap<String, FutureTask<Executable>> tasks =
+		new ConcurrentHashMap<String, FutureTask<Executable>>();
+	private static final Map<String, Long> failures = new ConcurrentHashMap<String, Long>();
 	private static final Memory memo = new Memory(true);
-	private static int next = 0;
+	private static final AtomicInteger next = new AtomicInteger();
+	private static final ExecutorService background = Executors.newFixedThreadPool(
+			Memory.COMPILERS,
+			new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread t = new Thread(r, "Descripter Compiler");
+					t.setDaemon(true);
+					return t;
+				}
+			}
+	);
 
 	/**
 	 * <p>Statically gets or creates an executable.</p>
+	 * <p>Looking up an existing executable takes no lock. A new source file is compiled once 
+	 * by the first request for it, while concurrent requests for the same file wait for that 
+	 * compilation. A modified source file is recompiled in the background, and its previous 
+	 * executable keeps being returned until the recompilation finishes. If the recompilation 
+	 * fails, it is not tried again until the file is modified again.</p>
+	 * <p>Files under a directory that is {@link #watch(File) watched} are known to be modified 
+	 * from file system events; other files are checked for modification on every request.</p>
 	 * @param scriptlet A {@link Scriptlet} to compile and/or descript the source file
 	 * @param file A {@link File} of Server-Side JavaScript source or JavaScript Server Page
 	 * @param jssp <tt>true</tt> if the source file is a JavaScript Server Page; otherwise, it is 
@@ -96,34 +152,448 @@ public class Executable
 	 * @return The existing or newly created executable.
 	 * @since Descripter 1.0
 	 */
-	public static synchronized final Executable get(Scriptlet<?> scriptlet, File file, boolean jssp)
+	public static final Executable get(Scriptlet<?> scriptlet, File file, boolean jssp)
 			throws FileNotFoundException, ClassNotFoundException {
-		String path = file.getAbsolutePath();
-		if (map.containsKey(path)) {
-			Executable x = map.get(path);
-			if (x.updated(file)) {
-				return x;
+		String path = path(file);
+		Executable x = map.get(path);
+		if (x != null) {
+			if (stale(path, x, file)) {
+				Long failed = failures.get(path);
+				if (failed == null || failed != file.lastModified()) {
+					submit(scriptlet, file, jssp, false);
+				}
+			}
+			return x;
+		}
+		try {
+			return submit(scriptlet, file, jssp, true).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			Throwable t = e.getCause();
+			if (t instanceof FileNotFoundException) {
+				throw (FileNotFoundException)t;
+			} else if (t instanceof ClassNotFoundException) {
+				throw (ClassNotFoundException)t;
+			} else if (t instanceof RuntimeException) {
+				throw (RuntimeException)t;
+			} else if (t instanceof Error) {
+				throw (Error)t;
+			}
+			throw new RuntimeException(t);
+		}
+	}
+
+	private static final List<String> roots = new CopyOnWriteArrayList<String>();
+	private static final Set<String> dirty = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+	private static final String path(File file) {
+		return file.getAbsoluteFile().toPath().normalize().toString();
+	}
+
+	private static final boolean stale(String path, Executable x, File file) {
+		return watched(path) ? dirty.contains(path) : !x.updated(file);
+	}
+
+	private static final boolean watched(String path) {
+		for (String root : roots) {
+			if (path.startsWith(root)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * <p>Statically watches a directory tree for modified and deleted source files.</p>
+	 * <p>Once a directory is watched, requests for the source files under it no longer check 
+	 * the modification time of the files. Instead, a daemon thread marks the executables of 
+	 * modified files as stale, and drops the executables of deleted files.</p>
+	 * <p>If any directory of the tree cannot be watched, including one created later, the tree 
+	 * is not watched at all and the modification time of its files is checked again.</p>
+	 * @param root The root {@link File} of the directory tree to watch.
+	 * @throws IOException if the directory tree cannot be watched.
+	 * @since Descripter 1.0
+	 */
+	public static final void watch(File root) throws IOException {
+		final Path dir = root.getAbsoluteFile().toPath().normalize();
+		final String prefix = dir.toString().endsWith(File.separator) ? dir.toString() : dir + File.separator;
+		if (roots.contains(prefix)) {
+			return;
+		}
+		final WatchService ws = dir.getFileSystem().newWatchService();
+		final Map<WatchKey, Path> dirs = new ConcurrentHashMap<WatchKey, Path>();
+		try {
+			register(ws, dirs, dir);
+		} catch (IOException e) {
+			ws.close();
+			throw e;
+		}
+		Thread t = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				for (;;) {
+					WatchKey k;
+					try {
+						k = ws.take();
+					} catch (InterruptedException e) {
+						break;
+					} catch (ClosedWatchServiceException e) {
+						break;
+					}
+					Path d = dirs.get(k);
+					for (WatchEvent<?> e : k.pollEvents()) {
+						if (e.kind() == StandardWatchEventKinds.OVERFLOW || d == null) {
+							for (String path : map.keySet()) {
+								if (path.startsWith(prefix)) {
+									dirty.add(path);
+								}
+							}
+							continue;
+						}
+						Path p = d.resolve((Path)e.context());
+						if (e.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+							forget(p.toString());
+							continue;
+						}
+						if (e.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(p)) {
+							try {
+								register(ws, dirs, p);
+							} catch (IOException x) {
+								System.err.println("Not watching " + prefix + " any longer: " + x);
+								try {
+									ws.close();
+								} catch (IOException y) {
+								}
+								break;
+							}
+						}
+						String path = p.toString();
+						if (map.containsKey(path) || tasks.containsKey(path)) {
+							dirty.add(path);
+						}
+					}
+					if (!k.reset()) {
+						dirs.remove(k);
+					}
+				}
+				roots.remove(prefix);
+				for (String path : dirty) {
+					if (path.startsWith(prefix)) {
+						dirty.remove(path);
+					}
+				}
+			}
+		}, "Descripter Watcher");
+		t.setDaemon(true);
+		t.start();
+		roots.add(prefix);
+	}
+
+	private static final void register(final WatchService ws, final Map<WatchKey, Path> dirs, Path dir)
+			throws IOException {
+		Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult preVisitDirectory(Path d, BasicFileAttributes attrs) throws IOException {
+				dirs.put(d.register(
+						ws,
+						StandardWatchEventKinds.ENTRY_CREATE,
+						StandardWatchEventKinds.ENTRY_MODIFY,
+						StandardWatchEventKinds.ENTRY_DELETE
+				), d);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	private static final void forget(String path) {
+		String prefix = path + File.separator;
+		for (String p : map.keySet()) {
+			if (p.equals(path) || p.startsWith(prefix)) {
+				map.remove(p);
+				dirty.remove(p);
+				failures.remove(p);
+				lock.lock();
+				try {
+					keys.remove(p);
+				} finally {
+					lock.unlock();
+				}
+			}
+		}
+	}
+
+	private static final Future<Executable> submit(final Scriptlet<?> scriptlet, final File file,
+			final boolean jssp, boolean wait) {
+		final String path = path(file);
+		FutureTask<Executable> task = new FutureTask<Executable>(new Callable<Executable>() {
+			@Override
+			public Executable call() throws Exception {
+				dirty.remove(path);
+				long stamp = file.lastModified();
+				Executable x = null;
+				try {
+					x = create(scriptlet, file, jssp);
+					return x;
+				} finally {
+					if (x == null) {
+						failures.put(path, stamp);
+					} else {
+						failures.remove(path);
+					}
+					tasks.remove(path);
+				}
+			}
+		});
+		FutureTask<Executable> t = tasks.putIfAbsent(path, task);
+		if (t != null) {
+			return t;
+		}
+		if (wait) {
+			task.run();
+		} else {
+			background.execute(task);
+		}
+		return task;
+	}
+
+	private static final Executable create(Scriptlet<?> scriptlet, File file, boolean jssp)
+			throws FileNotFoundException, ClassNotFoundException {
+		String path = path(file);
+		if (!scriptlet.core().javac()) {
+			String name = "J_S_S_" + next.getAndIncrement();
+			String source = read(file);
+			Reader reader = new StringReader(
+					jssp ? new Scriptizer(scriptlet).scriptize(source) : source
+			);
+			try {
+				map.put(
+						path,
+						new Executable(
+								file,
+								Program.define(memo, name, new Interpreter(scriptlet).prepare(reader))
+						)
+				);
+			} catch (ParseException e) {
+				throw new RuntimeException(e);
+			} catch (IllegalArgumentException e) {
+				throw new IllegalArgumentException(path + ": " + e.getMessage(), e);
+			}
+			return map.get(path);
+		}
+		String source = read(file);
+		String key = Cache.key(jssp, source);
+		String name = "J_S_S_" + key;
+		Class<?> c = cached(scriptlet, name, key);
+		if (c == null && memo.compile(name, descript(scriptlet, name, source, jssp))) {
+			c = store(scriptlet, name, key);
+		}
+		if (c == null) {
+			return null;
+		}
+		put(scriptlet, file, key, c);
+		return map.get(path);
+	}
+
+	private static final Map<String, String> keys = new HashMap<String, String>();
+	private static final ReentrantLock lock = new ReentrantLock();
+
+	private static final void put(Scriptlet<?> scriptlet, File file, String key, Class<?> c) {
+		String path = path(file);
+		lock.lock();
+		try {
+			String old = keys.put(path, key);
+			if (old != null && !old.equals(key) && !keys.containsValue(old)) {
+				Cache cache = scriptlet.with.cache();
+				if (cache != null) {
+					cache.evict(old);
+				}
 			}
+			map.put(path, new Executable(file, c));
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private static final Class<?> cached(Scriptlet<?> scriptlet, String name, String key) {
+		Class<?> c = memo.loaded(name);
+		Cache cache = scriptlet.with.cache();
+		if (c != null || cache == null) {
+			return c;
+		}
+		Map<String, byte[]> classes = cache.load(key);
+		if (classes == null) {
+			return null;
+		}
+		for (Map.Entry<String, byte[]> e : classes.entrySet()) {
+			memo.define(e.getKey(), e.getValue());
+		}
+		try {
+			return memo.loadClass(name);
+		} catch (ClassNotFoundException e) {
+		} catch (LinkageError e) {
+		}
+		cache.evict(key);
+		return null;
+	}
+
+	private static final Class<?> store(Scriptlet<?> scriptlet, String name, String key)
+			throws ClassNotFoundException {
+		Cache cache = scriptlet.with.cache();
+		if (cache != null) {
+			cache.save(key, memo.classes(name));
 		}
-		String name = "J_S_S_" + next++;
-		String java = jssp ? new Descripter(scriptlet).descript(
+		return memo.loadClass(name);
+	}
+
+	private static final String read(File file) throws FileNotFoundException {
+		Reader reader = new FileReader(file);
+		try {
+			StringBuilder sb = new StringBuilder();
+			char[] buf = new char[4096];
+			int len;
+			while ((len = reader.read(buf)) > 0) {
+				sb.append(buf, 0, len);
+			}
+			return sb.toString();
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		} finally {
+			try {
+				reader.close();
+			} catch (IOException e) {
+			}
+		}
+	}
+
+	private static final String descript(Scriptlet<?> scriptlet, String name, String source, boolean jssp) {
+		return jssp ? new Descripter(scriptlet).descript(
 				name,
 				new Scriptizer(scriptlet).scriptize(
-						new FileReader(file)
+						new StringReader(source)
 				)
 		) : new Descripter(scriptlet).descript(
 				name,
-				new FileReader(file)
+				source
 		);
-		if (memo.compile(name, java)) {
-			map.put(
-					path,
-					new Executable(
-							file,
-							memo.loadClass(name)
-					)
-			);
+	}
+
+	/**
+	 * <p>Statically creates the executables for a batch of source files, compiling them in one 
+	 * compilation task.</p>
+	 * <p>Files with the <tt>.jssp</tt> extension are taken as JavaScript Server Pages and the others 
+	 * as Server-Side JavaScript source. Files whose executables are up to date are skipped. A file 
+	 * that fails to be read, descripted, compiled or loaded does not stop the others; it is reported 
+	 * and left to {@link #get(Scriptlet, File, boolean)}.</p>
+	 * @param scriptlet A {@link Scriptlet} to compile and/or descript the source files
+	 * @param files The {@link File}s of the sources
+	 * @return A map from the absolute paths of the files that failed to their diagnostics.
+	 * @see Memory#compileAll(Map)
+	 * @since Descripter 1.0
+	 */
+	public static synchronized final Map<String, List<Diagnostic<? extends JavaFileObject>>> compile(
+			Scriptlet<?> scriptlet, Iterable<File> files) {
+		Map<String, List<Diagnostic<? extends JavaFileObject>>> failed =
+			new LinkedHashMap<String, List<Diagnostic<? extends JavaFileObject>>>();
+		Map<File, String> todo = new LinkedHashMap<File, String>();
+		Map<String, String> units = new LinkedHashMap<String, String>();
+		for (File file : files) {
+			String path = path(file);
+			boolean jssp = path.endsWith(".jssp");
+			Executable x = map.get(path);
+			if (x != null && !stale(path, x, file)) {
+				continue;
+			}
+			dirty.remove(path);
+			try {
+				if (!scriptlet.core().javac()) {
+					get(scriptlet, file, jssp);
+					continue;
+				}
+				String source = read(file);
+				String key = Cache.key(jssp, source);
+				String name = "J_S_S_" + key;
+				Class<?> c = cached(scriptlet, name, key);
+				if (c != null) {
+					put(scriptlet, file, key, c);
+					continue;
+				}
+				if (!units.containsKey(name)) {
+					units.put(name, descript(scriptlet, name, source, jssp));
+				}
+				todo.put(file, key);
+			} catch (Exception e) {
+				failed.put(path, failure(e));
+			} catch (LinkageError e) {
+				failed.put(path, failure(e));
+			}
 		}
-		return map.get(path);
+		if (units.isEmpty()) {
+			return failed;
+		}
+		Map<String, List<Diagnostic<? extends JavaFileObject>>> errs = memo.compileAll(units);
+		for (Map.Entry<File, String> e : todo.entrySet()) {
+			String name = "J_S_S_" + e.getValue();
+			if (errs.containsKey(name)) {
+				failed.put(path(e.getKey()), errs.get(name));
+				continue;
+			}
+			try {
+				Class<?> c = memo.loaded(name);
+				put(scriptlet, e.getKey(), e.getValue(), c != null ? c : store(scriptlet, name, e.getValue()));
+			} catch (Exception x) {
+				failed.put(path(e.getKey()), failure(x));
+			} catch (LinkageError x) {
+				failed.put(path(e.getKey()), failure(x));
+			}
+		}
+		return failed;
+	}
+
+	private static final List<Diagnostic<? extends JavaFileObject>> failure(final Throwable t) {
+		Diagnostic<JavaFileObject> d = new Diagnostic<JavaFileObject>() {
+			@Override
+			public Kind getKind() {
+				return Kind.ERROR;
+			}
+			@Override
+			public JavaFileObject getSource() {
+				return null;
+			}
+			@Override
+			public long getPosition() {
+				return NOPOS;
+			}
+			@Override
+			public long getStartPosition() {
+				return NOPOS;
+			}
+			@Override
+			public long getEndPosition() {
+				return NOPOS;
+			}
+			@Override
+			public long getLineNumber() {
+				return NOPOS;
+			}
+			@Override
+			public long getColumnNumber() {
+				return NOPOS;
+			}
+			@Override
+			public String getCode() {
+				return null;
+			}
+			@Override
+			public String getMessage(Locale locale) {
+				return t.toString();
+			}
+			@Override
+			public String toString() {
+				return t.toString();
+			}
+		};
+		return Collections.<Diagnostic<? extends JavaFileObject>>singletonList(d);
 	}
 }
@@ -0,0 +1,163 @@
+
+/*
+ *  Descripter 1.0 - Java Script Engines
+ *  Copyright (C) 2010-2015  Jianjun Liu (J.J.Liu)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.descripter.js.ss;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import com.sun.net.httpserver.HttpExchange;
+
+/**
+ * <p>Streams the output of a server-side scriptlet or page to its <tt>HTTP Response</tt>.</p>
+ * <p>Printed strings are encoded in UTF-8 straight into a pooled byte buffer. A response that fits
+ * in the buffer is sent with its exact <tt>Content-Length</tt>; a larger one is sent in chunks each
+ * time the buffer fills up, so a page is never held in memory as a whole.</p>
+ * <p>If a content coding is given, a response that fits in the buffer is compressed as a whole
+ * and a larger one is compressed as it is streamed.</p>
+ *
+ * @see Daemon#stream(boolean)
+ *
+ * @author <a href="mailto:jianjunliu@126.com">J.J.Liu (Jianjun Liu)</a> at <a href="http://www.descripter.org" target="_blank">http://www.descripter.org</a>
+ * @since Descripter 1.0
+ */
+public class Output
+{
+	/**
+	 * <p>The size of the buffer of an {@link Output}, which is also the size of its chunks.</p>
+	 * @since Descripter 1.0
+	 */
+	public final static int BUFFER = 8192;
+
+	private final static Charset UTF8 = Charset.forName("UTF-8");
+	private final static BlockingQueue<byte[]> pool = new ArrayBlockingQueue<byte[]>(64);
+
+	private final HttpExchange xchg;
+	private final String coding;
+	private final CharsetEncoder encoder = UTF8.newEncoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE);
+	private byte[] buf;
+	private ByteBuffer bb;
+	private OutputStream os;
+
+	/**
+	 * <p>Constructs an output of this type.</p>
+	 * @param xchg The {@link HttpExchange} to respond to.
+	 * @param type The MIME type of the response.
+	 * @since Descripter 1.0
+	 */
+	public Output(HttpExchange xchg, String type) {
+		this(xchg, type, null);
+	}
+
+	/**
+	 * <p>Constructs an output of this type with a content coding.</p>
+	 * @param xchg The {@link HttpExchange} to respond to.
+	 * @param type The MIME type of the response.
+	 * @param coding {@link Compressor#GZIP}, {@link Compressor#DEFLATE} or <tt>null</tt> for none.
+	 * @since Descripter 1.0
+	 */
+	public Output(HttpExchange xchg, String type, String coding) {
+		this.xchg = xchg;
+		this.coding = coding;
+		buf = pool.poll();
+		if (buf == null) {
+			buf = new byte[BUFFER];
+		}
+		bb = ByteBuffer.wrap(buf);
+		xchg.getResponseHeaders().add("Content-Type", type + "; charset=utf-8");
+	}
+
+	/**
+	 * <p>Prints a string to the response.</p>
+	 * @param s The string to print.
+	 * @throws IOException if the response fails to be sent.
+	 * @since Descripter 1.0
+	 */
+	public void print(String s) throws IOException {
+		CharBuffer cb = CharBuffer.wrap(s);
+		while (encoder.encode(cb, bb, true).isOverflow()) {
+			flush();
+		}
+		encoder.reset();
+	}
+
+	/**
+	 * <p>Sends the buffered output of the response in a chunk.</p>
+	 * @throws IOException if the response fails to be sent.
+	 * @since Descripter 1.0
+	 */
+	public void flush() throws IOException {
+		if (os == null) {
+			if (coding != null) {
+				xchg.getResponseHeaders().set("Content-Encoding", coding);
+			}
+			xchg.sendResponseHeaders(200, 0);
+			os = xchg.getResponseBody();
+			if (coding != null) {
+				os = Compressor.wrap(os, coding);
+			}
+		}
+		os.write(buf, 0, bb.position());
+		os.flush();
+		bb.clear();
+	}
+
+	/**
+	 * <p>Sends the rest of the response and finishes it.</p>
+	 * @throws IOException if the response fails to be sent.
+	 * @since Descripter 1.0
+	 */
+	public void close() throws IOException {
+		if (buf == null) {
+			return;
+		}
+		try {
+			if (os == null && coding != null && bb.position() >= Compressor.MIN) {
+				byte[] packed = Compressor.compress(buf, 0, bb.position(), coding);
+				if (packed.length < bb.position()) {
+					xchg.getResponseHeaders().set("Content-Encoding", coding);
+					xchg.sendResponseHeaders(200, packed.length);
+					os = xchg.getResponseBody();
+					os.write(packed);
+					os.close();
+					return;
+				}
+			}
+			if (os == null) {
+				xchg.sendResponseHeaders(200, bb.position() > 0 ? bb.position() : -1);
+				os = xchg.getResponseBody();
+			}
+			os.write(buf, 0, bb.position());
+			os.close();
+		} finally {
+			pool.offer(buf);
+			buf = null;
+			bb = null;
+		}
+	}
+}
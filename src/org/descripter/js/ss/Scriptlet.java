@@ -20,7 +20,6 @@
 package org.descripter.js.ss;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URI;
@@ -39,6 +38,8 @@ import com.sun.net.httpserver.HttpExchange;
 public class Scriptlet<W extends Daemon> extends Script<W>
 {
 	private final HttpExchange xchg;
+	private Output output;
+	private String coding;
 
 	/**
 	 * <p>Constructs this type of context.</p>
@@ -58,8 +59,13 @@ public class Scriptlet<W extends Daemon> extends Script<W>
 	 */
 	public void prelude() {
 		CObject request = object();
-		set(with._Request, request);
-		set(with._Response, array());
+		put(with._Request, request);
+		if (with.compress()) {
+			xchg.getResponseHeaders().set("Vary", "Accept-Encoding");
+			coding = Compressor.accept(xchg.getRequestHeaders());
+		}
+		output = with.stream() ? new Output(xchg, "text/html", coding) : null;
+		put(with._Response, output != null ? output : array());
 		String method = xchg.getRequestMethod();
 		URI uri = xchg.getRequestURI();
 		if ("POST".equalsIgnoreCase(method)) {
@@ -80,11 +86,22 @@ public class Scriptlet<W extends Daemon> extends Script<W>
 	 * @since Descripter 1.0
 	 */
 	public void finale() throws IOException {
-		String response = with.getResponse(this).join("");
+		if (output != null) {
+			output.close();
+			return;
+		}
+		byte[] response = with.getResponse(this).join("").getBytes();
 		xchg.getResponseHeaders().add("Content-Type", "text/html");
-		xchg.sendResponseHeaders(200, response.length());
+		if (coding != null && response.length >= Compressor.MIN) {
+			byte[] packed = Compressor.compress(response, 0, response.length, coding);
+			if (packed.length < response.length) {
+				xchg.getResponseHeaders().set("Content-Encoding", coding);
+				response = packed;
+			}
+		}
+		xchg.sendResponseHeaders(200, response.length);
 		OutputStream os = xchg.getResponseBody();
-		os.write(response.getBytes());
+		os.write(response);
 		os.close();
 	}
 
@@ -105,19 +122,7 @@ public class Scriptlet<W extends Daemon> extends Script<W>
 			} else if (path.endsWith(".jssp")) {
 				Executable.get(this, file, true ).execute(this);
 			} else {
-				FileInputStream fis = new FileInputStream(file);
-				String type = mime(path);
-				if (type != null) {
-					xchg.getResponseHeaders().add("Content-Type", type);
-				}
-				xchg.sendResponseHeaders(200, file.length());
-				OutputStream os = xchg.getResponseBody();
-				byte[] buf = new byte[4096];
-				int len;
-				while ((len = fis.read(buf)) > 0) {
-					os.write(buf, 0, len);
-				}
-				fis.close();os.close();
+				Asset.get(file).serve(xchg, file, mime(path), with.compress(), with.precompress());
 			}
 		} catch (Exception e) {
 			e.printStackTrace();
@@ -135,6 +140,7 @@ public class Scriptlet<W extends Daemon> extends Script<W>
 	public String mime(String path) {
 		CObject mime = with.mime;
 		int last = path.lastIndexOf('.');
-		return last > 0 ? var(mime, path.substring(last)).toString() : null;
+		Object type = last > 0 ? mime.get(key(path.substring(last + 1))) : null;
+		return type instanceof String ? (String)type : null;
 	}
 }